@@ -0,0 +1,15 @@
+/**
+ * ConstraintViolationException class thrown when a write breaks a table
+ * constraint, such as a duplicate email or ID
+ */
+public class ConstraintViolationException extends EmployeeDataException {
+    private static final long serialVersionUID = 1L;
+
+    public ConstraintViolationException(String message) {
+        this(message, null);
+    }
+
+    public ConstraintViolationException(String message, Throwable cause) {
+        super(Type.CONSTRAINT_VIOLATION, message, cause);
+    }
+}
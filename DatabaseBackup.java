@@ -0,0 +1,220 @@
+import org.sqlite.SQLiteConnection;
+
+import java.io.File;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DatabaseBackup class for online backups and point-in-time snapshots
+ * Copies the live database with the SQLite backup API in small page steps
+ * so the application can keep reading and writing while a backup runs
+ */
+public class DatabaseBackup {
+    private static final String BACKUP_DIR = "backups";
+    private static final String SNAPSHOT_PREFIX = "employee_database-";
+    private static final DateTimeFormatter SNAPSHOT_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    // Pages copied per backup step, and how to wait when a step finds the database busy
+    private static final int PAGES_PER_STEP = 64;
+    private static final int BUSY_SLEEP_MILLIS = 10;
+    private static final int BUSY_RETRIES = 300;
+    // Pause after each backup step so writers get the CPU and disk between steps
+    private static final long STEP_PAUSE_MILLIS = 1;
+
+    private static final int SQLITE_OK = 0;
+
+    private static ScheduledExecutorService scheduler = null;
+
+    /**
+     * Copy the live database to a file without blocking writers
+     * The backup runs on its own connection inside one read transaction, so it
+     * sees a single consistent snapshot and concurrent writes never restart it
+     * @param destFile path of the backup file to write
+     * @return true if successful, false otherwise
+     */
+    public static boolean backup(String destFile) {
+        try (Connection conn = DatabaseConnection.openSeparateConnection()) {
+            conn.setAutoCommit(false);
+
+            // Pin the read snapshot before copying the first page
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM sqlite_master")) {
+                rs.next();
+            }
+
+            int rc = conn.unwrap(SQLiteConnection.class).getDatabase()
+                .backup("main", destFile, DatabaseBackup::pauseBetweenSteps,
+                        BUSY_SLEEP_MILLIS, BUSY_RETRIES, PAGES_PER_STEP);
+            conn.commit();
+
+            if (rc == SQLITE_OK) {
+                System.out.println("Database backed up to: " + destFile);
+                return true;
+            }
+            System.err.println("Backup did not complete (SQLite result code " + rc + ")");
+
+        } catch (SQLException e) {
+            System.err.println("Error backing up database: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Backup progress callback, run after every step of PAGES_PER_STEP pages
+     */
+    private static void pauseBetweenSteps(int remaining, int pageCount) {
+        if (remaining == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(STEP_PAUSE_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Take a timestamped snapshot in the backups directory
+     * @param retain number of most recent snapshots to keep (0 keeps all)
+     * @return path of the new snapshot, or null if the backup failed
+     */
+    public static String snapshot(int retain) {
+        File dir = new File(BACKUP_DIR);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            System.err.println("Cannot create backup directory: " + dir.getAbsolutePath());
+            return null;
+        }
+
+        File dest = new File(dir, SNAPSHOT_PREFIX + LocalDateTime.now().format(SNAPSHOT_TIME) + ".db");
+        if (!backup(dest.getPath())) {
+            dest.delete();
+            return null;
+        }
+        if (retain > 0) {
+            applyRetention(retain);
+        }
+        return dest.getPath();
+    }
+
+    /**
+     * List snapshots in the backups directory, newest first
+     * @return List of snapshot files
+     */
+    public static List<File> listSnapshots() {
+        File[] files = new File(BACKUP_DIR).listFiles(
+            (dir, name) -> name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(".db"));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        // Timestamped names sort chronologically
+        Arrays.sort(files, Comparator.comparing(File::getName).reversed());
+        return new ArrayList<>(Arrays.asList(files));
+    }
+
+    /**
+     * Delete the oldest snapshots beyond the retention count
+     * @param retain number of most recent snapshots to keep
+     */
+    public static void applyRetention(int retain) {
+        List<File> snapshots = listSnapshots();
+        for (File old : snapshots.subList(Math.min(retain, snapshots.size()), snapshots.size())) {
+            if (old.delete()) {
+                System.out.println("Removed old snapshot: " + old.getPath());
+            }
+        }
+    }
+
+    /**
+     * Replace the live database contents with a backup file
+     * Runs on the shared connection so the application sees the restored data
+     * @param sourceFile path of the backup file to restore
+     * @return true if successful, false otherwise
+     */
+    public static boolean restore(String sourceFile) {
+        if (!new File(sourceFile).isFile()) {
+            System.err.println("Backup file not found: " + sourceFile);
+            return false;
+        }
+
+        try {
+            Connection conn = DatabaseConnection.getConnection();
+            int rc = conn.unwrap(SQLiteConnection.class).getDatabase()
+                .restore("main", sourceFile, null, BUSY_SLEEP_MILLIS, BUSY_RETRIES, PAGES_PER_STEP);
+
+            if (rc == SQLITE_OK) {
+                System.out.println("Database restored from: " + sourceFile);
+                return true;
+            }
+            System.err.println("Restore did not complete (SQLite result code " + rc + ")");
+
+        } catch (SQLException e) {
+            System.err.println("Error restoring database: " + e.getMessage());
+            e.printStackTrace();
+        } catch (EmployeeDataException e) {
+            System.err.println(e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Start taking snapshots in the background at a fixed interval
+     * @param intervalMinutes minutes between snapshots, greater than zero
+     * @param retain number of most recent snapshots to keep (0 keeps all)
+     * @throws IllegalArgumentException if the interval is not positive or retain is negative
+     */
+    public static synchronized void startScheduledSnapshots(long intervalMinutes, int retain) {
+        if (intervalMinutes <= 0 || retain < 0) {
+            throw new IllegalArgumentException("Invalid snapshot interval " + intervalMinutes
+                                               + " or retention " + retain);
+        }
+        stopScheduledSnapshots();
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "snapshot-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> scheduledSnapshot(retain), intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        System.out.println("Scheduled snapshots every " + intervalMinutes + " minute(s), keeping "
+                           + (retain > 0 ? String.valueOf(retain) : "all"));
+    }
+
+    /**
+     * One scheduled snapshot
+     * Any exception escaping a periodic task would silently cancel the schedule,
+     * so everything is caught and logged here and the next run still happens
+     */
+    private static void scheduledSnapshot(int retain) {
+        try {
+            if (snapshot(retain) == null) {
+                System.err.println("Scheduled snapshot failed; retrying at the next interval");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Scheduled snapshot failed: " + e + "; retrying at the next interval");
+        }
+    }
+
+    /**
+     * Stop scheduled snapshots, waiting for a running snapshot to finish
+     */
+    public static synchronized void stopScheduledSnapshots() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+    }
+}
@@ -0,0 +1,12 @@
+/**
+ * DatabaseBusyException class thrown when the database stays busy or locked
+ * by another connection (SQLITE_BUSY, SQLITE_LOCKED)
+ * Transient: the operation may succeed if tried again later.
+ */
+public class DatabaseBusyException extends EmployeeDataException {
+    private static final long serialVersionUID = 1L;
+
+    public DatabaseBusyException(String message, Throwable cause) {
+        super(Type.BUSY, message, cause);
+    }
+}
@@ -5,35 +5,101 @@ import java.sql.*;
  * Handles connection setup and database initialization
  */
 public class DatabaseConnection {
-    private static final String DB_URL = "jdbc:sqlite:employee_database.db";
+    private static final String DB_FILE = "employee_database.db";
     private static Connection connection = null;
 
     /**
-     * Get database connection
-     * @return Connection object
+     * Get database connection, opening it on first use
+     * @return Connection object, never null
+     * @throws EmployeeDataException if the database cannot be opened
+     *         (DatabaseIOException when the file cannot be opened or is not a database)
      */
     public static Connection getConnection() {
         try {
             if (connection == null || connection.isClosed()) {
-                // Load SQLite JDBC driver
-                Class.forName("org.sqlite.JDBC");
-                connection = DriverManager.getConnection(DB_URL);
+                connection = openConnection(DB_FILE);
                 System.out.println("Connected to SQLite database successfully!");
             }
-        } catch (ClassNotFoundException e) {
-            System.err.println("SQLite JDBC driver not found!");
-            e.printStackTrace();
         } catch (SQLException e) {
-            System.err.println("Error connecting to database!");
-            e.printStackTrace();
+            throw FailureStats.record(EmployeeDataException.from("opening database", e));
         }
         return connection;
     }
 
+    /**
+     * Open a separate connection to the same database file
+     * Used by background work (such as backups) that must not share the main connection
+     * @return new Connection object, to be closed by the caller
+     * @throws SQLException if the connection cannot be opened
+     */
+    public static Connection openSeparateConnection() throws SQLException {
+        return openConnection(DB_FILE);
+    }
+
+    /**
+     * Open a new connection to the given SQLite database file
+     * @param dbFile database file name, created if it does not exist
+     * @return new Connection object, to be closed by the caller
+     * @throws SQLException if the connection cannot be opened
+     */
+    public static Connection openConnection(String dbFile) throws SQLException {
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("SQLite JDBC driver not found!", e);
+        }
+        Connection conn = DriverManager.getConnection("jdbc:sqlite:" + dbFile);
+        try {
+            enableWriteAheadLog(conn);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+
+    /**
+     * Get the path of the database file
+     * @return database file name
+     */
+    public static String getDatabaseFile() {
+        return DB_FILE;
+    }
+
+    /**
+     * Switch the database to write-ahead logging
+     * Readers (including online backups) then no longer block writers
+     */
+    private static void enableWriteAheadLog(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA journal_mode=WAL");
+        }
+    }
+
     /**
      * Initialize database and create tables
+     * @throws EmployeeDataException if the database cannot be opened or set up
      */
     public static void initializeDatabase() {
+        try {
+            createTables(getConnection());
+            System.out.println("Employee table created successfully!");
+        } catch (SQLException e) {
+            throw FailureStats.record(EmployeeDataException.from("creating tables", e));
+        }
+
+        // Insert sample data if table is empty
+        insertSampleData();
+    }
+
+    /**
+     * Create the employees table and its indexes on a connection if they do not exist yet
+     * The salary indexes let top-earner, salary-range and percentile queries
+     * read only the matching index entries instead of the whole table
+     * @param conn Connection to create the table on
+     * @throws SQLException if the table cannot be created
+     */
+    public static void createTables(Connection conn) throws SQLException {
         String createTableSQL = """
             CREATE TABLE IF NOT EXISTS employees (
                 id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -46,18 +112,10 @@ public class DatabaseConnection {
             )
             """;
 
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
-            
+        try (Statement stmt = conn.createStatement()) {
             stmt.execute(createTableSQL);
-            System.out.println("Employee table created successfully!");
-            
-            // Insert sample data if table is empty
-            insertSampleData();
-            
-        } catch (SQLException e) {
-            System.err.println("Error creating table!");
-            e.printStackTrace();
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_employees_department_salary ON employees (department, salary)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_employees_salary ON employees (salary)");
         }
     }
 
@@ -71,8 +129,8 @@ public class DatabaseConnection {
             VALUES (?, ?, ?, ?, ?, ?)
             """;
 
-        try (Connection conn = getConnection();
-             Statement checkStmt = conn.createStatement();
+        Connection conn = getConnection();
+        try (Statement checkStmt = conn.createStatement();
              ResultSet rs = checkStmt.executeQuery(checkDataSQL)) {
             
             if (rs.next() && rs.getInt(1) == 0) {
@@ -109,11 +167,66 @@ public class DatabaseConnection {
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error inserting sample data!");
+            throw FailureStats.record(EmployeeDataException.from("inserting sample data", e));
+        }
+    }
+
+    /**
+     * Start a transaction on the shared connection
+     * Statements run until commit or rollback are applied as one unit.
+     * The transaction is started with BEGIN IMMEDIATE, which takes the write lock
+     * up front: a busy database fails here, before anything was read, so the
+     * begin is retried with the default RetryPolicy, and statements inside the
+     * transaction can no longer fail with SQLITE_BUSY. The transaction is
+     * controlled with SQL statements; the JDBC connection stays in auto-commit mode.
+     * @return true if the transaction was started, false otherwise
+     */
+    public static boolean beginTransaction() {
+        try {
+            RetryPolicy.defaultPolicy().execute(getConnection(), "starting transaction", conn -> {
+                executeStatement(conn, "BEGIN IMMEDIATE");
+                return null;
+            });
+            return true;
+        } catch (EmployeeDataException e) {
+            System.err.println(e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Commit the current transaction
+     * @return true if the transaction was committed, false otherwise
+     */
+    public static boolean commitTransaction() {
+        try {
+            executeStatement(getConnection(), "COMMIT");
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error committing transaction!");
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Roll back the current transaction
+     */
+    public static void rollbackTransaction() {
+        try {
+            executeStatement(getConnection(), "ROLLBACK");
+        } catch (SQLException e) {
+            System.err.println("Error rolling back transaction!");
             e.printStackTrace();
         }
     }
 
+    private static void executeStatement(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
     /**
      * Close database connection
      */
@@ -0,0 +1,11 @@
+/**
+ * DatabaseIOException class thrown when the database file cannot be read
+ * or written (I/O error, full disk, corrupt or read-only file)
+ */
+public class DatabaseIOException extends EmployeeDataException {
+    private static final long serialVersionUID = 1L;
+
+    public DatabaseIOException(String message, Throwable cause) {
+        super(Type.IO, message, cause);
+    }
+}
@@ -0,0 +1,344 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EmployeeBatchRunner class for non-interactive scripted operations
+ * Runs commands from arguments or a command file, writing tab-separated results
+ * to stdout; with the SQLite backend all commands share one transaction
+ *
+ * Commands (one per line, '#' starts a comment, quote values containing spaces):
+ *   add FIRST LAST EMAIL DEPARTMENT SALARY HIRE_DATE
+ *   get ID
+ *   update ID FIELD=VALUE...   (first_name, last_name, email, department, salary, hire_date)
+ *   delete ID
+ *   search DEPARTMENT
+ *   list
+ *   count
+ *   stats
+ *   top N [DEPARTMENT]
+ *   range MIN MAX
+ *   percentile SALARY
+ *
+ * Output lines:
+ *   ROW    id first_name last_name email department salary hire_date
+ *   OK     command [values...]   (percentile: OK percentile SALARY RANK)
+ *   NOT_FOUND command id
+ *   ERROR  line message   (including storage failures such as a duplicate email or a busy database)
+ */
+public class EmployeeBatchRunner {
+    private final EmployeeRepository employeeDAO;
+    private final PrintWriter out;
+    private int lineNumber = 0;
+    private int failures = 0;
+
+    public EmployeeBatchRunner(EmployeeRepository employeeDAO, PrintWriter out) {
+        this.employeeDAO = employeeDAO;
+        this.out = out;
+    }
+
+    /**
+     * Entry point used by EmployeeDatabaseApp for --batch and --exec
+     * @param args command-line arguments, starting with the mode flag
+     * @return process exit code, 0 if every command succeeded
+     */
+    public static int run(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: EmployeeDatabaseApp --batch <file|->");
+            System.err.println("       EmployeeDatabaseApp --exec \"<command>\" [\"<command>\" ...]");
+            return 2;
+        }
+
+        // Keep stdout for results only; status messages go to stderr
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 1 << 16));
+        System.setOut(System.err);
+
+        EmployeeRepository employeeDAO;
+        try {
+            employeeDAO = EmployeeDatabaseApp.createRepository();
+        } catch (EmployeeDataException e) {
+            System.err.println(e.getMessage());
+            return 1;
+        }
+        EmployeeBatchRunner runner = new EmployeeBatchRunner(employeeDAO, out);
+
+        // Only the main database file can run the script in one transaction
+        boolean transactional = EmployeeDatabaseApp.usesMainDatabase(employeeDAO);
+        if (transactional) {
+            boolean started;
+            try {
+                DatabaseConnection.initializeDatabase();
+                started = DatabaseConnection.beginTransaction();
+            } catch (EmployeeDataException e) {
+                System.err.println(e.getMessage());
+                started = false;
+            }
+            if (!started) {
+                employeeDAO.close();
+                DatabaseConnection.closeConnection();
+                return 1;
+            }
+        }
+        boolean committed = false;
+        try {
+            if (args[0].equals("--batch")) {
+                Reader source = args[1].equals("-")
+                    ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                    : new FileReader(args[1], StandardCharsets.UTF_8);
+                try (BufferedReader reader = new BufferedReader(source, 1 << 16)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        runner.execute(line);
+                    }
+                }
+            } else {
+                for (int i = 1; i < args.length; i++) {
+                    runner.execute(args[i]);
+                }
+            }
+            committed = !transactional || DatabaseConnection.commitTransaction();
+        } catch (IOException e) {
+            System.err.println("Error reading command file: " + e.getMessage());
+        } finally {
+            if (transactional && !committed) {
+                DatabaseConnection.rollbackTransaction();
+            }
+            out.flush();
+            if (FailureStats.getTotalFailures() > 0 || FailureStats.getRetries() > 0) {
+                System.err.println("Storage failures: " + FailureStats.summary());
+            }
+            employeeDAO.close();
+            DatabaseConnection.closeConnection();
+        }
+        return committed && runner.failures == 0 ? 0 : 1;
+    }
+
+    /**
+     * Execute a single command line
+     * @param line command text
+     */
+    public void execute(String line) {
+        lineNumber++;
+        List<String> tokens;
+        try {
+            tokens = tokenize(line);
+        } catch (IllegalArgumentException e) {
+            error(e.getMessage());
+            return;
+        }
+        if (tokens.isEmpty()) {
+            return;
+        }
+
+        String command = tokens.get(0).toLowerCase();
+        try {
+            switch (command) {
+                case "add":
+                    add(tokens);
+                    break;
+                case "get":
+                    get(tokens);
+                    break;
+                case "update":
+                    update(tokens);
+                    break;
+                case "delete":
+                    delete(tokens);
+                    break;
+                case "search":
+                    requireArgs(tokens, 1);
+                    printRows(command, employeeDAO.getEmployeesByDepartment(tokens.get(1)));
+                    break;
+                case "list":
+                    printRows(command, employeeDAO.getAllEmployees());
+                    break;
+                case "count":
+                    out.println("OK\tcount\t" + employeeDAO.getTotalEmployeeCount());
+                    break;
+                case "stats":
+                    stats();
+                    break;
+                case "top":
+                    requireArgs(tokens, 1);
+                    printRows(command, employeeDAO.getTopEarners(parseCount(tokens.get(1)),
+                                                                 tokens.size() > 2 ? tokens.get(2) : null));
+                    break;
+                case "range":
+                    requireArgs(tokens, 2);
+                    printRows(command, employeeDAO.getEmployeesBySalaryRange(parseSalary(tokens.get(1)),
+                                                                             parseSalary(tokens.get(2))));
+                    break;
+                case "percentile":
+                    requireArgs(tokens, 1);
+                    double salary = parseSalary(tokens.get(1));
+                    out.println("OK\tpercentile\t" + salary + "\t" + employeeDAO.getSalaryPercentileRank(salary));
+                    break;
+                default:
+                    error("Unknown command: " + tokens.get(0));
+            }
+        } catch (IllegalArgumentException e) {
+            error(e.getMessage());
+        } catch (EmployeeNotFoundException e) {
+            out.println("NOT_FOUND\t" + command + "\t" + e.getEmployeeId());
+        } catch (EmployeeDataException e) {
+            error(e.getMessage());
+        }
+    }
+
+    private void add(List<String> tokens) {
+        requireArgs(tokens, 6);
+        Employee employee = new Employee(tokens.get(1), tokens.get(2), tokens.get(3),
+                                         tokens.get(4), parseSalary(tokens.get(5)), tokens.get(6));
+        employeeDAO.addEmployee(employee);
+        out.println("OK\tadd\t" + employee.getId());
+    }
+
+    private void get(List<String> tokens) {
+        requireArgs(tokens, 1);
+        int id = parseId(tokens.get(1));
+        printRow(employeeDAO.requireEmployeeById(id));
+        out.println("OK\tget\t" + id);
+    }
+
+    private void update(List<String> tokens) {
+        requireArgs(tokens, 2);
+        int id = parseId(tokens.get(1));
+        Employee employee = employeeDAO.requireEmployeeById(id);
+
+        for (String assignment : tokens.subList(2, tokens.size())) {
+            int eq = assignment.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected FIELD=VALUE but got: " + assignment);
+            }
+            String value = assignment.substring(eq + 1);
+            switch (assignment.substring(0, eq).toLowerCase()) {
+                case "first_name": employee.setFirstName(value); break;
+                case "last_name": employee.setLastName(value); break;
+                case "email": employee.setEmail(value); break;
+                case "department": employee.setDepartment(value); break;
+                case "salary": employee.setSalary(parseSalary(value)); break;
+                case "hire_date": employee.setHireDate(value); break;
+                default:
+                    throw new IllegalArgumentException("Unknown field: " + assignment.substring(0, eq));
+            }
+        }
+
+        employeeDAO.updateEmployee(employee);
+        out.println("OK\tupdate\t" + id);
+    }
+
+    private void delete(List<String> tokens) {
+        requireArgs(tokens, 1);
+        int id = parseId(tokens.get(1));
+        employeeDAO.deleteEmployee(id);
+        out.println("OK\tdelete\t" + id);
+    }
+
+    private void stats() {
+        SalaryStatistics stats = employeeDAO.getSalaryStatistics();
+        if (stats.getCount() == 0) {
+            out.println("OK\tstats\t0\t0.0\t0.0\t0.0");
+            return;
+        }
+        out.println("OK\tstats\t" + stats.getCount() + "\t" + stats.getAverageSalary()
+                    + "\t" + stats.getHighestPaid().getSalary() + "\t" + stats.getLowestPaid().getSalary());
+    }
+
+    private void printRows(String command, List<Employee> employees) {
+        for (Employee emp : employees) {
+            printRow(emp);
+        }
+        out.println("OK\t" + command + "\t" + employees.size());
+    }
+
+    private void printRow(Employee emp) {
+        out.println("ROW\t" + emp.getId() + "\t" + emp.getFirstName() + "\t" + emp.getLastName()
+                    + "\t" + emp.getEmail() + "\t" + emp.getDepartment() + "\t" + emp.getSalary()
+                    + "\t" + emp.getHireDate());
+    }
+
+    private void error(String message) {
+        failures++;
+        out.println("ERROR\t" + lineNumber + "\t" + message);
+    }
+
+    private static void requireArgs(List<String> tokens, int count) {
+        if (tokens.size() - 1 < count) {
+            throw new IllegalArgumentException(tokens.get(0) + " expects " + count + " argument(s)");
+        }
+    }
+
+    private static int parseId(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid ID: " + value);
+        }
+    }
+
+    private static int parseCount(String value) {
+        try {
+            int count = Integer.parseInt(value);
+            if (count < 0) {
+                throw new IllegalArgumentException("Count cannot be negative: " + value);
+            }
+            return count;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid count: " + value);
+        }
+    }
+
+    private static double parseSalary(String value) {
+        try {
+            double salary = Double.parseDouble(value);
+            if (!Double.isFinite(salary)) {
+                throw new IllegalArgumentException("Invalid salary: " + value);
+            }
+            if (salary < 0) {
+                throw new IllegalArgumentException("Salary cannot be negative: " + value);
+            }
+            return salary;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid salary: " + value);
+        }
+    }
+
+    /**
+     * Split a command line on whitespace, honouring double-quoted values
+     * @throws IllegalArgumentException if a quote is not closed
+     */
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        boolean hasToken = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                inQuotes = !inQuotes;
+                hasToken = true;
+            } else if (Character.isWhitespace(c) && !inQuotes) {
+                if (hasToken) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                    hasToken = false;
+                }
+            } else if (c == '#' && !inQuotes && !hasToken) {
+                break;
+            } else {
+                current.append(c);
+                hasToken = true;
+            }
+        }
+        if (inQuotes) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        if (hasToken) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+}
@@ -7,79 +7,88 @@ import java.util.List;
  * Handles all database operations for Employee entities
  * Implements CRUD operations using JDBC
  */
-public class EmployeeDAO {
+public class EmployeeDAO implements EmployeeRepository {
+    // Connection this DAO is bound to, or null to use the shared DatabaseConnection
+    private final Connection connection;
+    private final RetryPolicy retryPolicy;
+
+    public EmployeeDAO() {
+        this(null);
+    }
+
+    /**
+     * Create a DAO bound to a specific connection (for example one shard)
+     * @param connection Connection to use for every operation
+     */
+    public EmployeeDAO(Connection connection) {
+        this(connection, RetryPolicy.defaultPolicy());
+    }
+
+    /**
+     * Create a DAO with its own retry policy
+     * @param connection Connection to use for every operation, or null for the shared one
+     * @param retryPolicy how busy or locked operations are retried
+     */
+    public EmployeeDAO(Connection connection, RetryPolicy retryPolicy) {
+        this.connection = connection;
+        this.retryPolicy = retryPolicy;
+    }
 
     /**
      * Add a new employee to the database
+     * An employee without an ID gets a generated one; an employee that already
+     * has an ID (greater than zero) is stored under that ID
      * @param employee Employee object to add
-     * @return true if successful, false otherwise
+     * @throws ConstraintViolationException if the email or ID is already taken
      */
-    public boolean addEmployee(Employee employee) {
+    @Override
+    public void addEmployee(Employee employee) {
         String sql = """
-            INSERT INTO employees (first_name, last_name, email, department, salary, hire_date) 
-            VALUES (?, ?, ?, ?, ?, ?)
+            INSERT INTO employees (id, first_name, last_name, email, department, salary, hire_date) 
+            VALUES (?, ?, ?, ?, ?, ?, ?)
             """;
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            pstmt.setString(1, employee.getFirstName());
-            pstmt.setString(2, employee.getLastName());
-            pstmt.setString(3, employee.getEmail());
-            pstmt.setString(4, employee.getDepartment());
-            pstmt.setDouble(5, employee.getSalary());
-            pstmt.setString(6, employee.getHireDate());
-
-            int rowsAffected = pstmt.executeUpdate();
-            
-            if (rowsAffected > 0) {
-                // Get the generated ID
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        employee.setId(generatedKeys.getInt(1));
-                    }
+        int id = retryPolicy.execute(getConnection(), "adding employee", conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                if (employee.getId() > 0) {
+                    pstmt.setInt(1, employee.getId());
+                } else {
+                    pstmt.setNull(1, Types.INTEGER);
                 }
-                System.out.println("Employee added successfully with ID: " + employee.getId());
-                return true;
+                pstmt.setString(2, employee.getFirstName());
+                pstmt.setString(3, employee.getLastName());
+                pstmt.setString(4, employee.getEmail());
+                pstmt.setString(5, employee.getDepartment());
+                pstmt.setDouble(6, employee.getSalary());
+                pstmt.setString(7, employee.getHireDate());
+                pstmt.executeUpdate();
+            }
+            // Get the generated ID (newer SQLite drivers no longer support getGeneratedKeys)
+            try (Statement stmt = conn.createStatement();
+                 ResultSet generatedKeys = stmt.executeQuery("SELECT last_insert_rowid()")) {
+                generatedKeys.next();
+                return generatedKeys.getInt(1);
             }
+        });
 
-        } catch (SQLException e) {
-            System.err.println("Error adding employee: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return false;
+        employee.setId(id);
+        System.out.println("Employee added successfully with ID: " + id);
     }
 
     /**
      * Retrieve all employees from the database
      * @return List of all employees
      */
+    @Override
     public List<Employee> getAllEmployees() {
-        List<Employee> employees = new ArrayList<>();
         String sql = "SELECT * FROM employees ORDER BY id";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                Employee employee = new Employee(
-                    rs.getInt("id"),
-                    rs.getString("first_name"),
-                    rs.getString("last_name"),
-                    rs.getString("email"),
-                    rs.getString("department"),
-                    rs.getDouble("salary"),
-                    rs.getString("hire_date")
-                );
-                employees.add(employee);
+        return retryPolicy.execute(getConnection(), "retrieving employees", conn -> {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                return mapEmployees(rs);
             }
-
-        } catch (SQLException e) {
-            System.err.println("Error retrieving employees: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return employees;
+        });
     }
 
     /**
@@ -87,98 +96,73 @@ public class EmployeeDAO {
      * @param id Employee ID
      * @return Employee object or null if not found
      */
+    @Override
     public Employee getEmployeeById(int id) {
         String sql = "SELECT * FROM employees WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, id);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    return new Employee(
-                        rs.getInt("id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("email"),
-                        rs.getString("department"),
-                        rs.getDouble("salary"),
-                        rs.getString("hire_date")
-                    );
+        return retryPolicy.execute(getConnection(), "retrieving employee by ID", conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, id);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return rs.next() ? mapEmployee(rs) : null;
                 }
             }
-
-        } catch (SQLException e) {
-            System.err.println("Error retrieving employee by ID: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null;
+        });
     }
 
     /**
      * Update an existing employee
      * @param employee Employee object with updated information
-     * @return true if successful, false otherwise
+     * @throws EmployeeNotFoundException if no employee has the employee's ID
+     * @throws ConstraintViolationException if the new email is already taken
      */
-    public boolean updateEmployee(Employee employee) {
+    @Override
+    public void updateEmployee(Employee employee) {
         String sql = """
             UPDATE employees 
             SET first_name = ?, last_name = ?, email = ?, department = ?, salary = ?, hire_date = ? 
             WHERE id = ?
             """;
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, employee.getFirstName());
-            pstmt.setString(2, employee.getLastName());
-            pstmt.setString(3, employee.getEmail());
-            pstmt.setString(4, employee.getDepartment());
-            pstmt.setDouble(5, employee.getSalary());
-            pstmt.setString(6, employee.getHireDate());
-            pstmt.setInt(7, employee.getId());
-
-            int rowsAffected = pstmt.executeUpdate();
-            if (rowsAffected > 0) {
-                System.out.println("Employee updated successfully!");
-                return true;
-            } else {
-                System.out.println("No employee found with ID: " + employee.getId());
+        int rowsAffected = retryPolicy.execute(getConnection(), "updating employee", conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, employee.getFirstName());
+                pstmt.setString(2, employee.getLastName());
+                pstmt.setString(3, employee.getEmail());
+                pstmt.setString(4, employee.getDepartment());
+                pstmt.setDouble(5, employee.getSalary());
+                pstmt.setString(6, employee.getHireDate());
+                pstmt.setInt(7, employee.getId());
+                return pstmt.executeUpdate();
             }
+        });
 
-        } catch (SQLException e) {
-            System.err.println("Error updating employee: " + e.getMessage());
-            e.printStackTrace();
+        if (rowsAffected == 0) {
+            throw FailureStats.record(new EmployeeNotFoundException(employee.getId()));
         }
-        return false;
+        System.out.println("Employee updated successfully!");
     }
 
     /**
      * Delete an employee by ID
      * @param id Employee ID to delete
-     * @return true if successful, false otherwise
+     * @throws EmployeeNotFoundException if no employee has this ID
      */
-    public boolean deleteEmployee(int id) {
+    @Override
+    public void deleteEmployee(int id) {
         String sql = "DELETE FROM employees WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, id);
-            int rowsAffected = pstmt.executeUpdate();
-            
-            if (rowsAffected > 0) {
-                System.out.println("Employee deleted successfully!");
-                return true;
-            } else {
-                System.out.println("No employee found with ID: " + id);
+        int rowsAffected = retryPolicy.execute(getConnection(), "deleting employee", conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, id);
+                return pstmt.executeUpdate();
             }
+        });
 
-        } catch (SQLException e) {
-            System.err.println("Error deleting employee: " + e.getMessage());
-            e.printStackTrace();
+        if (rowsAffected == 0) {
+            throw FailureStats.record(new EmployeeNotFoundException(id));
         }
-        return false;
+        System.out.println("Employee deleted successfully!");
     }
 
     /**
@@ -186,55 +170,171 @@ public class EmployeeDAO {
      * @param department Department name
      * @return List of employees in the specified department
      */
+    @Override
     public List<Employee> getEmployeesByDepartment(String department) {
-        List<Employee> employees = new ArrayList<>();
         String sql = "SELECT * FROM employees WHERE department = ? ORDER BY last_name, first_name";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, department);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Employee employee = new Employee(
-                        rs.getInt("id"),
-                        rs.getString("first_name"),
-                        rs.getString("last_name"),
-                        rs.getString("email"),
-                        rs.getString("department"),
-                        rs.getDouble("salary"),
-                        rs.getString("hire_date")
-                    );
-                    employees.add(employee);
+        return retryPolicy.execute(getConnection(), "searching employees by department", conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, department);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return mapEmployees(rs);
                 }
             }
-
-        } catch (SQLException e) {
-            System.err.println("Error searching employees by department: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return employees;
+        });
     }
 
     /**
      * Get total number of employees
      * @return Total count of employees
      */
+    @Override
     public int getTotalEmployeeCount() {
         String sql = "SELECT COUNT(*) FROM employees";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            if (rs.next()) {
+        return retryPolicy.execute(getConnection(), "getting employee count", conn -> {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                rs.next();
                 return rs.getInt(1);
             }
+        });
+    }
+
+    /**
+     * Get salary statistics (count, total, highest and lowest paid)
+     * Computed with aggregate queries instead of loading every employee
+     * @return SalaryStatistics for all employees
+     */
+    @Override
+    public SalaryStatistics getSalaryStatistics() {
+        String totalsSql = "SELECT COUNT(*), COALESCE(SUM(salary), 0) FROM employees";
+        String highestSql = "SELECT * FROM employees ORDER BY salary DESC, id LIMIT 1";
+        String lowestSql = "SELECT * FROM employees ORDER BY salary ASC, id LIMIT 1";
+
+        return retryPolicy.execute(getConnection(), "getting salary statistics", conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                int count;
+                double totalSalary;
+                try (ResultSet rs = stmt.executeQuery(totalsSql)) {
+                    rs.next();
+                    count = rs.getInt(1);
+                    totalSalary = rs.getDouble(2);
+                }
+                if (count == 0) {
+                    return new SalaryStatistics();
+                }
+
+                Employee highestPaid;
+                try (ResultSet rs = stmt.executeQuery(highestSql)) {
+                    highestPaid = rs.next() ? mapEmployee(rs) : null;
+                }
+                Employee lowestPaid;
+                try (ResultSet rs = stmt.executeQuery(lowestSql)) {
+                    lowestPaid = rs.next() ? mapEmployee(rs) : null;
+                }
+                return new SalaryStatistics(count, totalSalary, highestPaid, lowestPaid);
+            }
+        });
+    }
 
-        } catch (SQLException e) {
-            System.err.println("Error getting employee count: " + e.getMessage());
-            e.printStackTrace();
+    @Override
+    public List<Employee> getTopEarners(int n, String department) {
+        String sql = department == null
+            ? "SELECT * FROM employees ORDER BY salary DESC, id LIMIT ?"
+            : "SELECT * FROM employees WHERE department = ? ORDER BY salary DESC, id LIMIT ?";
+
+        return retryPolicy.execute(getConnection(), "retrieving top earners", conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int param = 1;
+                if (department != null) {
+                    pstmt.setString(param++, department);
+                }
+                pstmt.setInt(param, Math.max(0, n));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return mapEmployees(rs);
+                }
+            }
+        });
+    }
+
+    @Override
+    public List<Employee> getEmployeesBySalaryRange(double min, double max) {
+        String sql = "SELECT * FROM employees WHERE salary BETWEEN ? AND ? ORDER BY salary, id";
+
+        return retryPolicy.execute(getConnection(), "retrieving employees by salary range", conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setDouble(1, min);
+                pstmt.setDouble(2, max);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    return mapEmployees(rs);
+                }
+            }
+        });
+    }
+
+    @Override
+    public double getSalaryPercentileRank(double salary) {
+        int[] counts = countSalariesAround(salary);
+        return counts[2] > 0 ? (counts[0] + 0.5 * counts[1]) * 100.0 / counts[2] : 0.0;
+    }
+
+    /**
+     * Count employees earning less than, exactly, and in total relative to a salary
+     * The first two counts are answered from the salary index
+     * @param salary salary to compare with
+     * @return {below, equal, total}
+     */
+    int[] countSalariesAround(double salary) {
+        String sql = """
+            SELECT (SELECT COUNT(*) FROM employees WHERE salary < ?),
+                   (SELECT COUNT(*) FROM employees WHERE salary = ?),
+                   (SELECT COUNT(*) FROM employees)
+            """;
+
+        return retryPolicy.execute(getConnection(), "computing salary percentile", conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setDouble(1, salary);
+                pstmt.setDouble(2, salary);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    return new int[] { rs.getInt(1), rs.getInt(2), rs.getInt(3) };
+                }
+            }
+        });
+    }
+
+    /**
+     * Connection used for all operations of this DAO
+     * @throws EmployeeDataException if the shared connection cannot be opened
+     */
+    protected Connection getConnection() {
+        return connection != null ? connection : DatabaseConnection.getConnection();
+    }
+
+    /**
+     * Build an Employee from every remaining ResultSet row
+     */
+    private List<Employee> mapEmployees(ResultSet rs) throws SQLException {
+        List<Employee> employees = new ArrayList<>();
+        while (rs.next()) {
+            employees.add(mapEmployee(rs));
         }
-        return 0;
+        return employees;
+    }
+
+    /**
+     * Build an Employee from the current ResultSet row
+     */
+    private Employee mapEmployee(ResultSet rs) throws SQLException {
+        return new Employee(
+            rs.getInt("id"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getString("email"),
+            rs.getString("department"),
+            rs.getDouble("salary"),
+            rs.getString("hire_date")
+        );
     }
 }
@@ -0,0 +1,86 @@
+import java.sql.SQLException;
+
+/**
+ * EmployeeDataException class for failed storage operations
+ * Base of the typed exceptions thrown by EmployeeRepository implementations;
+ * thrown as is for failures that fit none of the subclasses.
+ * Unchecked, so repository methods keep their plain signatures.
+ */
+public class EmployeeDataException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Kind of failure, used to count failures by type
+     */
+    public enum Type {
+        // No employee with the requested ID
+        NOT_FOUND,
+        // A UNIQUE, NOT NULL or similar constraint rejected the write
+        CONSTRAINT_VIOLATION,
+        // The database was busy or locked by another connection (transient)
+        BUSY,
+        // Disk, file or corruption problem
+        IO,
+        // Anything else
+        OTHER
+    }
+
+    // SQLite primary result codes (extended codes carry these in their low byte)
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+    private static final int SQLITE_READONLY = 8;
+    private static final int SQLITE_IOERR = 10;
+    private static final int SQLITE_CORRUPT = 11;
+    private static final int SQLITE_FULL = 13;
+    private static final int SQLITE_CANTOPEN = 14;
+    private static final int SQLITE_CONSTRAINT = 19;
+    private static final int SQLITE_NOTADB = 26;
+
+    private final Type type;
+
+    public EmployeeDataException(String message, Throwable cause) {
+        this(Type.OTHER, message, cause);
+    }
+
+    protected EmployeeDataException(Type type, String message, Throwable cause) {
+        super(message, cause);
+        this.type = type;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Whether retrying the same operation may succeed
+     */
+    public boolean isTransient() {
+        return type == Type.BUSY;
+    }
+
+    /**
+     * Translate a SQLException into the matching typed exception
+     * @param operation what was being done, for example "adding employee"
+     * @param e exception thrown by the driver
+     * @return typed exception wrapping e
+     */
+    public static EmployeeDataException from(String operation, SQLException e) {
+        String message = "Error " + operation + ": " + e.getMessage();
+        switch (e.getErrorCode() & 0xff) {
+            case SQLITE_BUSY:
+            case SQLITE_LOCKED:
+                return new DatabaseBusyException(message, e);
+            case SQLITE_CONSTRAINT:
+                return new ConstraintViolationException(message, e);
+            case SQLITE_READONLY:
+            case SQLITE_IOERR:
+            case SQLITE_CORRUPT:
+            case SQLITE_FULL:
+            case SQLITE_CANTOPEN:
+            case SQLITE_NOTADB:
+                return new DatabaseIOException(message, e);
+            default:
+                return new EmployeeDataException(message, e);
+        }
+    }
+}
@@ -1,3 +1,5 @@
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Scanner;
 
@@ -7,15 +9,53 @@ import java.util.Scanner;
  * Demonstrates CRUD operations with PreparedStatement and ResultSet
  */
 public class EmployeeDatabaseApp {
-    private static EmployeeDAO employeeDAO = new EmployeeDAO();
+    private static EmployeeRepository employeeDAO;
     private static Scanner scanner = new Scanner(System.in);
 
+    // Rows inspected to size table columns, and rows per page (-Demployee.pageSize, 0 = no paging)
+    private static final int TABLE_WIDTH_SAMPLE = 1000;
+    private static final int PAGE_SIZE = Integer.getInteger("employee.pageSize", 0);
+
     public static void main(String[] args) {
+        // Non-interactive mode: run scripted commands and exit
+        if (args.length > 0 && (args[0].equals("--batch") || args[0].equals("--exec"))) {
+            System.exit(EmployeeBatchRunner.run(args));
+        }
+
+        // One-off backup or restore, then exit
+        if (args.length > 0 && (args[0].equals("--backup") || args[0].equals("--restore"))) {
+            System.exit(runBackupCommand(args));
+        }
+
         System.out.println("=== Employee Database Management System ===");
-        System.out.println("Initializing database...");
         
-        // Initialize database and create tables
-        DatabaseConnection.initializeDatabase();
+        // Initialize database and create tables (not needed for in-memory or sharded storage)
+        try {
+            employeeDAO = createRepository();
+            if (usesMainDatabase(employeeDAO)) {
+                System.out.println("Initializing database...");
+                DatabaseConnection.initializeDatabase();
+            }
+        } catch (EmployeeDataException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+
+        // Optional background snapshots: --snapshots <minutes> [keep]
+        if (args.length > 1 && args[0].equals("--snapshots")) {
+            String unavailable = backupUnavailableReason();
+            if (unavailable != null) {
+                System.out.println(unavailable + " Scheduled snapshots disabled.");
+            } else {
+                try {
+                    int retain = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+                    DatabaseBackup.startScheduledSnapshots(Long.parseLong(args[1]), retain);
+                } catch (IllegalArgumentException e) {
+                    // Not a number, or a zero or negative interval or retention
+                    System.out.println("Invalid snapshot settings, scheduled snapshots disabled.");
+                }
+            }
+        }
         
         // Main application loop
         boolean running = true;
@@ -23,33 +63,52 @@ public class EmployeeDatabaseApp {
             displayMenu();
             int choice = getIntInput("Enter your choice: ");
             
-            switch (choice) {
-                case 1:
-                    addEmployee();
-                    break;
-                case 2:
-                    viewAllEmployees();
-                    break;
-                case 3:
-                    viewEmployeeById();
-                    break;
-                case 4:
-                    updateEmployee();
-                    break;
-                case 5:
-                    deleteEmployee();
-                    break;
-                case 6:
-                    searchByDepartment();
-                    break;
-                case 7:
-                    showStatistics();
-                    break;
-                case 8:
-                    running = false;
-                    break;
-                default:
-                    System.out.println("Invalid choice! Please try again.");
+            try {
+                switch (choice) {
+                    case 1:
+                        addEmployee();
+                        break;
+                    case 2:
+                        viewAllEmployees();
+                        break;
+                    case 3:
+                        viewEmployeeById();
+                        break;
+                    case 4:
+                        updateEmployee();
+                        break;
+                    case 5:
+                        deleteEmployee();
+                        break;
+                    case 6:
+                        searchByDepartment();
+                        break;
+                    case 7:
+                        showStatistics();
+                        break;
+                    case 8:
+                        showTopEarners();
+                        break;
+                    case 9:
+                        searchBySalaryRange();
+                        break;
+                    case 10:
+                        showSalaryPercentile();
+                        break;
+                    case 11:
+                        backupDatabase();
+                        break;
+                    case 12:
+                        restoreDatabase();
+                        break;
+                    case 13:
+                        running = false;
+                        break;
+                    default:
+                        System.out.println("Invalid choice! Please try again.");
+                }
+            } catch (EmployeeDataException e) {
+                reportFailure(e);
             }
             
             if (running) {
@@ -59,11 +118,60 @@ public class EmployeeDatabaseApp {
         }
         
         // Close database connection
+        DatabaseBackup.stopScheduledSnapshots();
+        employeeDAO.close();
         DatabaseConnection.closeConnection();
         scanner.close();
         System.out.println("Thank you for using Employee Database Management System!");
     }
 
+    /**
+     * Create the storage backend selected by system properties
+     * -Demployee.storage=memory keeps employees in memory only,
+     * -Demployee.shards=N spreads employees over N SQLite files, and
+     * -Demployee.partitioning=department|id chooses how new employees are placed
+     * @return EmployeeRepository for the configured storage
+     */
+    static EmployeeRepository createRepository() {
+        if (System.getProperty("employee.storage", "sqlite").equalsIgnoreCase("memory")) {
+            return new InMemoryEmployeeRepository();
+        }
+        int shards = Integer.getInteger("employee.shards", 0);
+        if (shards <= 0) {
+            return new EmployeeDAO();
+        }
+        ShardedEmployeeDAO.Partitioning partitioning =
+            System.getProperty("employee.partitioning", "id").equalsIgnoreCase("department")
+                ? ShardedEmployeeDAO.Partitioning.DEPARTMENT
+                : ShardedEmployeeDAO.Partitioning.ID_HASH;
+        return ShardedEmployeeDAO.open(shards, partitioning);
+    }
+
+    /**
+     * Whether a repository stores its data in the main database file
+     * Only then does the application need to set up that file, and only then can
+     * a batch run in one transaction on it
+     */
+    static boolean usesMainDatabase(EmployeeRepository repository) {
+        return repository instanceof EmployeeDAO;
+    }
+
+    /**
+     * Why backup and restore are unavailable for the configured storage
+     * They copy the main database file only, which in-memory and sharded storage do not use
+     * @return message for the user, or null if backup and restore are available
+     */
+    static String backupUnavailableReason() {
+        if (System.getProperty("employee.storage", "sqlite").equalsIgnoreCase("memory")) {
+            return "Backup and restore are not available with in-memory storage: there is no database file.";
+        }
+        if (Integer.getInteger("employee.shards", 0) > 0) {
+            return "Backup and restore are not available with sharded storage: they copy only "
+                   + DatabaseConnection.getDatabaseFile() + ", which holds none of the shard data.";
+        }
+        return null;
+    }
+
     /**
      * Display main menu
      */
@@ -78,7 +186,12 @@ public class EmployeeDatabaseApp {
         System.out.println("5. Delete Employee");
         System.out.println("6. Search by Department");
         System.out.println("7. Show Statistics");
-        System.out.println("8. Exit");
+        System.out.println("8. Top Earners");
+        System.out.println("9. Search by Salary Range");
+        System.out.println("10. Salary Percentile Rank");
+        System.out.println("11. Backup Database");
+        System.out.println("12. Restore from Backup");
+        System.out.println("13. Exit");
         System.out.println("=".repeat(50));
     }
 
@@ -114,12 +227,9 @@ public class EmployeeDatabaseApp {
         
         Employee employee = new Employee(firstName, lastName, email, department, salary, hireDate);
         
-        if (employeeDAO.addEmployee(employee)) {
-            System.out.println("Employee added successfully!");
-            System.out.println("Generated ID: " + employee.getId());
-        } else {
-            System.out.println("Failed to add employee!");
-        }
+        employeeDAO.addEmployee(employee);
+        System.out.println("Employee added successfully!");
+        System.out.println("Generated ID: " + employee.getId());
     }
 
     /**
@@ -134,15 +244,15 @@ public class EmployeeDatabaseApp {
             return;
         }
         
-        System.out.println(String.format("%-4s %-15s %-15s %-25s %-15s %-10s %-12s", 
-                          "ID", "First Name", "Last Name", "Email", "Department", "Salary", "Hire Date"));
-        System.out.println("-".repeat(100));
-        
-        for (Employee emp : employees) {
-            System.out.println(String.format("%-4d %-15s %-15s %-25s %-15s $%-9.2f %-12s",
-                              emp.getId(), emp.getFirstName(), emp.getLastName(), 
-                              emp.getEmail(), emp.getDepartment(), emp.getSalary(), emp.getHireDate()));
-        }
+        TableRenderer table = new TableRenderer()
+            .intColumn("ID", 4, Employee::getId)
+            .textColumn("First Name", 15, Employee::getFirstName)
+            .textColumn("Last Name", 15, Employee::getLastName)
+            .textColumn("Email", 25, Employee::getEmail)
+            .textColumn("Department", 15, Employee::getDepartment)
+            .moneyColumn("Salary", 10, Employee::getSalary)
+            .textColumn("Hire Date", 12, Employee::getHireDate);
+        printTable(table, employees);
         
         System.out.println("\nTotal employees: " + employees.size());
     }
@@ -154,19 +264,15 @@ public class EmployeeDatabaseApp {
         System.out.println("\n--- View Employee by ID ---");
         int id = getIntInput("Enter Employee ID: ");
         
-        Employee employee = employeeDAO.getEmployeeById(id);
-        if (employee != null) {
-            System.out.println("\nEmployee Details:");
-            System.out.println("-".repeat(40));
-            System.out.println("ID: " + employee.getId());
-            System.out.println("Name: " + employee.getFullName());
-            System.out.println("Email: " + employee.getEmail());
-            System.out.println("Department: " + employee.getDepartment());
-            System.out.println("Salary: $" + String.format("%.2f", employee.getSalary()));
-            System.out.println("Hire Date: " + employee.getHireDate());
-        } else {
-            System.out.println("Employee not found with ID: " + id);
-        }
+        Employee employee = employeeDAO.requireEmployeeById(id);
+        System.out.println("\nEmployee Details:");
+        System.out.println("-".repeat(40));
+        System.out.println("ID: " + employee.getId());
+        System.out.println("Name: " + employee.getFullName());
+        System.out.println("Email: " + employee.getEmail());
+        System.out.println("Department: " + employee.getDepartment());
+        System.out.println("Salary: $" + String.format("%.2f", employee.getSalary()));
+        System.out.println("Hire Date: " + employee.getHireDate());
     }
 
     /**
@@ -176,11 +282,7 @@ public class EmployeeDatabaseApp {
         System.out.println("\n--- Update Employee ---");
         int id = getIntInput("Enter Employee ID to update: ");
         
-        Employee employee = employeeDAO.getEmployeeById(id);
-        if (employee == null) {
-            System.out.println("Employee not found with ID: " + id);
-            return;
-        }
+        Employee employee = employeeDAO.requireEmployeeById(id);
         
         System.out.println("Current details: " + employee);
         System.out.println("Enter new details (press Enter to keep current value):");
@@ -205,7 +307,12 @@ public class EmployeeDatabaseApp {
         String salaryStr = scanner.nextLine().trim();
         if (!salaryStr.isEmpty()) {
             try {
-                employee.setSalary(Double.parseDouble(salaryStr));
+                double salary = Double.parseDouble(salaryStr);
+                if (!Double.isFinite(salary) || salary < 0) {
+                    System.out.println("Invalid salary format!");
+                    return;
+                }
+                employee.setSalary(salary);
             } catch (NumberFormatException e) {
                 System.out.println("Invalid salary format!");
                 return;
@@ -216,11 +323,8 @@ public class EmployeeDatabaseApp {
         String hireDate = scanner.nextLine().trim();
         if (!hireDate.isEmpty()) employee.setHireDate(hireDate);
         
-        if (employeeDAO.updateEmployee(employee)) {
-            System.out.println("Employee updated successfully!");
-        } else {
-            System.out.println("Failed to update employee!");
-        }
+        employeeDAO.updateEmployee(employee);
+        System.out.println("Employee updated successfully!");
     }
 
     /**
@@ -230,22 +334,15 @@ public class EmployeeDatabaseApp {
         System.out.println("\n--- Delete Employee ---");
         int id = getIntInput("Enter Employee ID to delete: ");
         
-        Employee employee = employeeDAO.getEmployeeById(id);
-        if (employee == null) {
-            System.out.println("Employee not found with ID: " + id);
-            return;
-        }
+        Employee employee = employeeDAO.requireEmployeeById(id);
         
         System.out.println("Employee to delete: " + employee);
         System.out.print("Are you sure you want to delete this employee? (y/N): ");
         String confirmation = scanner.nextLine().trim().toLowerCase();
         
         if (confirmation.equals("y") || confirmation.equals("yes")) {
-            if (employeeDAO.deleteEmployee(id)) {
-                System.out.println("Employee deleted successfully!");
-            } else {
-                System.out.println("Failed to delete employee!");
-            }
+            employeeDAO.deleteEmployee(id);
+            System.out.println("Employee deleted successfully!");
         } else {
             System.out.println("Delete operation cancelled.");
         }
@@ -272,43 +369,53 @@ public class EmployeeDatabaseApp {
         }
         
         System.out.println("\nEmployees in " + department + " department:");
-        System.out.println(String.format("%-4s %-20s %-25s %-10s %-12s", 
-                          "ID", "Name", "Email", "Salary", "Hire Date"));
-        System.out.println("-".repeat(75));
-        
-        for (Employee emp : employees) {
-            System.out.println(String.format("%-4d %-20s %-25s $%-9.2f %-12s",
-                              emp.getId(), emp.getFullName(), emp.getEmail(), 
-                              emp.getSalary(), emp.getHireDate()));
-        }
+        TableRenderer table = new TableRenderer()
+            .intColumn("ID", 4, Employee::getId)
+            .textColumn("Name", 20, Employee::getFullName)
+            .textColumn("Email", 25, Employee::getEmail)
+            .moneyColumn("Salary", 10, Employee::getSalary)
+            .textColumn("Hire Date", 12, Employee::getHireDate);
+        printTable(table, employees);
         
         System.out.println("\nTotal employees in " + department + ": " + employees.size());
     }
 
+    /**
+     * Print a listing with columns sized to the data and the configured pager
+     */
+    private static void printTable(TableRenderer table, List<Employee> employees) {
+        table.fitWidths(employees, TABLE_WIDTH_SAMPLE)
+             .pager(PAGE_SIZE, EmployeeDatabaseApp::nextPage);
+        try {
+            table.render(employees, TableRenderer.consoleWriter());
+        } catch (IOException e) {
+            System.err.println("Error printing table: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Pager prompt between pages
+     * @return true to show the next page, false to stop
+     */
+    private static boolean nextPage() {
+        System.out.print("-- More (Enter to continue, q to quit) --");
+        return !scanner.nextLine().trim().equalsIgnoreCase("q");
+    }
+
     /**
      * Show database statistics
      */
     private static void showStatistics() {
         System.out.println("\n--- Database Statistics ---");
-        int totalEmployees = employeeDAO.getTotalEmployeeCount();
+        SalaryStatistics stats = employeeDAO.getSalaryStatistics();
+        int totalEmployees = stats.getCount();
         System.out.println("Total Employees: " + totalEmployees);
         
         if (totalEmployees > 0) {
-            List<Employee> allEmployees = employeeDAO.getAllEmployees();
+            System.out.println("Average Salary: $" + String.format("%.2f", stats.getAverageSalary()));
             
-            // Calculate average salary
-            double totalSalary = allEmployees.stream().mapToDouble(Employee::getSalary).sum();
-            double avgSalary = totalSalary / totalEmployees;
-            
-            System.out.println("Average Salary: $" + String.format("%.2f", avgSalary));
-            
-            // Find highest and lowest salary
-            Employee highestPaid = allEmployees.stream()
-                .max((e1, e2) -> Double.compare(e1.getSalary(), e2.getSalary()))
-                .orElse(null);
-            Employee lowestPaid = allEmployees.stream()
-                .min((e1, e2) -> Double.compare(e1.getSalary(), e2.getSalary()))
-                .orElse(null);
+            Employee highestPaid = stats.getHighestPaid();
+            Employee lowestPaid = stats.getLowestPaid();
             
             if (highestPaid != null) {
                 System.out.println("Highest Paid: " + highestPaid.getFullName() + 
@@ -319,6 +426,176 @@ public class EmployeeDatabaseApp {
                                  " ($" + String.format("%.2f", lowestPaid.getSalary()) + ")");
             }
         }
+        System.out.println("Storage Failures: " + FailureStats.summary());
+    }
+
+    /**
+     * Explain a failed storage operation to the user
+     */
+    private static void reportFailure(EmployeeDataException e) {
+        if (e instanceof EmployeeNotFoundException) {
+            System.out.println(e.getMessage());
+        } else if (e instanceof ConstraintViolationException) {
+            System.out.println("Operation rejected: " + e.getMessage());
+        } else if (e instanceof DatabaseBusyException) {
+            System.out.println("The database is busy, please try again: " + e.getMessage());
+        } else {
+            System.out.println("Operation failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Show the highest-paid employees, optionally within one department
+     */
+    private static void showTopEarners() {
+        System.out.println("\n--- Top Earners ---");
+        int n = getIntInput("How many employees? ");
+        System.out.print("Department (press Enter for all): ");
+        String department = scanner.nextLine().trim();
+
+        List<Employee> employees = employeeDAO.getTopEarners(n, department.isEmpty() ? null : department);
+        if (employees.isEmpty()) {
+            System.out.println("No employees found!");
+            return;
+        }
+
+        System.out.println("\nTop " + employees.size() + " earners"
+                           + (department.isEmpty() ? "" : " in " + department) + ":");
+        printSalaryTable(employees);
+    }
+
+    /**
+     * Search employees by salary range
+     */
+    private static void searchBySalaryRange() {
+        System.out.println("\n--- Search by Salary Range ---");
+        double min = getDoubleInput("Minimum salary: $");
+        double max = getDoubleInput("Maximum salary: $");
+        if (min > max) {
+            System.out.println("Minimum salary cannot be greater than maximum salary!");
+            return;
+        }
+
+        List<Employee> employees = employeeDAO.getEmployeesBySalaryRange(min, max);
+        if (employees.isEmpty()) {
+            System.out.println("No employees found in this salary range!");
+            return;
+        }
+
+        printSalaryTable(employees);
+        System.out.println("\nTotal employees in range: " + employees.size());
+    }
+
+    /**
+     * Show where an employee's salary ranks among all employees
+     */
+    private static void showSalaryPercentile() {
+        System.out.println("\n--- Salary Percentile Rank ---");
+        int id = getIntInput("Enter Employee ID: ");
+
+        Employee employee = employeeDAO.requireEmployeeById(id);
+
+        double rank = employeeDAO.getSalaryPercentileRank(employee.getSalary());
+        System.out.println(employee.getFullName() + " ($" + String.format("%.2f", employee.getSalary())
+                           + ") is at the " + String.format("%.1f", rank) + " percentile of all salaries");
+    }
+
+    /**
+     * Print employees with their department and salary
+     */
+    private static void printSalaryTable(List<Employee> employees) {
+        TableRenderer table = new TableRenderer()
+            .intColumn("ID", 4, Employee::getId)
+            .textColumn("Name", 20, Employee::getFullName)
+            .textColumn("Department", 15, Employee::getDepartment)
+            .moneyColumn("Salary", 10, Employee::getSalary);
+        printTable(table, employees);
+    }
+
+    /**
+     * Take a snapshot of the live database
+     */
+    private static void backupDatabase() {
+        System.out.println("\n--- Backup Database ---");
+        String unavailable = backupUnavailableReason();
+        if (unavailable != null) {
+            System.out.println(unavailable);
+            return;
+        }
+        String path = DatabaseBackup.snapshot(0);
+        if (path != null) {
+            System.out.println("Snapshot saved: " + path);
+        } else {
+            System.out.println("Backup failed!");
+        }
+    }
+
+    /**
+     * Restore the database from a snapshot
+     */
+    private static void restoreDatabase() {
+        System.out.println("\n--- Restore from Backup ---");
+        String unavailable = backupUnavailableReason();
+        if (unavailable != null) {
+            System.out.println(unavailable);
+            return;
+        }
+        List<File> snapshots = DatabaseBackup.listSnapshots();
+        if (snapshots.isEmpty()) {
+            System.out.println("No snapshots found!");
+            return;
+        }
+
+        for (int i = 0; i < snapshots.size(); i++) {
+            System.out.println((i + 1) + ". " + snapshots.get(i).getName());
+        }
+        int choice = getIntInput("Select snapshot to restore (0 to cancel): ");
+        if (choice < 1 || choice > snapshots.size()) {
+            System.out.println("Restore operation cancelled.");
+            return;
+        }
+
+        File snapshot = snapshots.get(choice - 1);
+        System.out.print("This will replace all current data. Continue? (y/N): ");
+        String confirmation = scanner.nextLine().trim().toLowerCase();
+        if (confirmation.equals("y") || confirmation.equals("yes")) {
+            if (DatabaseBackup.restore(snapshot.getPath())) {
+                System.out.println("Database restored successfully!");
+            } else {
+                System.out.println("Failed to restore database!");
+            }
+        } else {
+            System.out.println("Restore operation cancelled.");
+        }
+    }
+
+    /**
+     * Handle --backup [file] and --restore <file>
+     * @return process exit code
+     */
+    private static int runBackupCommand(String[] args) {
+        String unavailable = backupUnavailableReason();
+        if (unavailable != null) {
+            System.err.println(unavailable);
+            return 1;
+        }
+        boolean success;
+        if (args[0].equals("--backup")) {
+            try {
+                DatabaseConnection.initializeDatabase();
+                success = args.length > 1 ? DatabaseBackup.backup(args[1]) : DatabaseBackup.snapshot(0) != null;
+            } catch (EmployeeDataException e) {
+                System.err.println(e.getMessage());
+                success = false;
+            }
+        } else if (args.length > 1) {
+            success = DatabaseBackup.restore(args[1]);
+        } else {
+            System.err.println("Usage: EmployeeDatabaseApp --restore <file>");
+            success = false;
+        }
+        DatabaseConnection.closeConnection();
+        return success ? 0 : 1;
     }
 
     /**
@@ -344,6 +621,10 @@ public class EmployeeDatabaseApp {
             System.out.print(prompt);
             try {
                 double value = Double.parseDouble(scanner.nextLine().trim());
+                if (!Double.isFinite(value)) {
+                    System.out.println("Please enter a valid number!");
+                    continue;
+                }
                 if (value < 0) {
                     System.out.println("Salary cannot be negative!");
                     continue;
@@ -0,0 +1,17 @@
+/**
+ * EmployeeNotFoundException class thrown when an update, a delete or a
+ * required lookup targets an employee ID that does not exist
+ */
+public class EmployeeNotFoundException extends EmployeeDataException {
+    private static final long serialVersionUID = 1L;
+    private final int employeeId;
+
+    public EmployeeNotFoundException(int employeeId) {
+        super(Type.NOT_FOUND, "No employee found with ID: " + employeeId, null);
+        this.employeeId = employeeId;
+    }
+
+    public int getEmployeeId() {
+        return employeeId;
+    }
+}
@@ -0,0 +1,114 @@
+import java.util.List;
+
+/**
+ * EmployeeRepository interface for employee storage backends
+ * Implemented by EmployeeDAO (SQLite via JDBC), ShardedEmployeeDAO
+ * (several SQLite files) and InMemoryEmployeeRepository (no database)
+ *
+ * Failures are thrown as EmployeeDataException subclasses
+ * (EmployeeNotFoundException, ConstraintViolationException,
+ * DatabaseBusyException, DatabaseIOException) and counted in FailureStats.
+ */
+public interface EmployeeRepository extends AutoCloseable {
+
+    /**
+     * Add a new employee
+     * An employee without an ID gets a generated one; an employee that already
+     * has an ID (greater than zero) is stored under that ID
+     * @param employee Employee object to add, updated with its ID
+     * @throws ConstraintViolationException if the email or ID is already taken
+     */
+    void addEmployee(Employee employee);
+
+    /**
+     * Retrieve all employees ordered by ID
+     * @return List of all employees
+     */
+    List<Employee> getAllEmployees();
+
+    /**
+     * Retrieve an employee by ID
+     * @param id Employee ID
+     * @return Employee object or null if not found
+     */
+    Employee getEmployeeById(int id);
+
+    /**
+     * Retrieve an employee that must exist
+     * @param id Employee ID
+     * @return Employee object
+     * @throws EmployeeNotFoundException if no employee has this ID
+     */
+    default Employee requireEmployeeById(int id) {
+        Employee employee = getEmployeeById(id);
+        if (employee == null) {
+            throw FailureStats.record(new EmployeeNotFoundException(id));
+        }
+        return employee;
+    }
+
+    /**
+     * Update an existing employee
+     * @param employee Employee object with updated information
+     * @throws EmployeeNotFoundException if no employee has the employee's ID
+     * @throws ConstraintViolationException if the new email is already taken
+     */
+    void updateEmployee(Employee employee);
+
+    /**
+     * Delete an employee by ID
+     * @param id Employee ID to delete
+     * @throws EmployeeNotFoundException if no employee has this ID
+     */
+    void deleteEmployee(int id);
+
+    /**
+     * Search employees by department, ordered by last and first name
+     * @param department Department name
+     * @return List of employees in the specified department
+     */
+    List<Employee> getEmployeesByDepartment(String department);
+
+    /**
+     * Get total number of employees
+     * @return Total count of employees
+     */
+    int getTotalEmployeeCount();
+
+    /**
+     * Get salary statistics (count, total, highest and lowest paid)
+     * @return SalaryStatistics for all employees
+     */
+    SalaryStatistics getSalaryStatistics();
+
+    /**
+     * Get the highest-paid employees, highest salary first (ties by lower ID)
+     * @param n maximum number of employees to return
+     * @param department Department name, or null for all departments
+     * @return List of at most n employees
+     */
+    List<Employee> getTopEarners(int n, String department);
+
+    /**
+     * Get employees whose salary lies within a range, lowest salary first (ties by lower ID)
+     * @param min lowest salary, inclusive
+     * @param max highest salary, inclusive
+     * @return List of matching employees
+     */
+    List<Employee> getEmployeesBySalaryRange(double min, double max);
+
+    /**
+     * Get the percentile rank of a salary among all employees
+     * Computed as (employees earning less + half of those earning the same) / all employees * 100
+     * @param salary salary to rank
+     * @return percentile rank from 0 to 100, or 0 if there are no employees
+     */
+    double getSalaryPercentileRank(double salary);
+
+    /**
+     * Release resources held by this repository
+     * The default does nothing, for backends without resources of their own
+     */
+    @Override
+    default void close() {}
+}
@@ -0,0 +1,94 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * FailureStats class counting storage failures by type
+ * Process-wide, lock-free counters: recording a failure does no I/O, so
+ * failing operations no longer stall on printing stack traces.
+ * Also counts retries of transient failures and operations they rescued.
+ */
+public class FailureStats {
+    private static final EmployeeDataException.Type[] TYPES = EmployeeDataException.Type.values();
+    private static final LongAdder[] failures = new LongAdder[TYPES.length];
+    private static final LongAdder retries = new LongAdder();
+    private static final LongAdder recovered = new LongAdder();
+
+    static {
+        for (int i = 0; i < failures.length; i++) {
+            failures[i] = new LongAdder();
+        }
+    }
+
+    private FailureStats() {}
+
+    /**
+     * Count a failure that is about to be thrown
+     * @param e the failure
+     * @return e, so callers can write {@code throw FailureStats.record(e)}
+     */
+    public static <E extends EmployeeDataException> E record(E e) {
+        failures[e.getType().ordinal()].increment();
+        return e;
+    }
+
+    /**
+     * Count one retry of a transient failure
+     */
+    public static void recordRetry() {
+        retries.increment();
+    }
+
+    /**
+     * Count an operation that succeeded after one or more retries
+     */
+    public static void recordRecovered() {
+        recovered.increment();
+    }
+
+    public static long getFailures(EmployeeDataException.Type type) {
+        return failures[type.ordinal()].sum();
+    }
+
+    public static long getTotalFailures() {
+        long total = 0;
+        for (LongAdder counter : failures) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    public static long getRetries() {
+        return retries.sum();
+    }
+
+    public static long getRecovered() {
+        return recovered.sum();
+    }
+
+    /**
+     * One-line summary, for example
+     * "not found 2, constraint violation 1, busy 0, io 0, other 0; 5 retries, 3 operations recovered"
+     */
+    public static String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (EmployeeDataException.Type type : TYPES) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(type.name().toLowerCase().replace('_', ' ')).append(' ').append(getFailures(type));
+        }
+        sb.append("; ").append(getRetries()).append(" retries, ")
+          .append(getRecovered()).append(" operations recovered");
+        return sb.toString();
+    }
+
+    /**
+     * Reset every counter to zero
+     */
+    public static void reset() {
+        for (LongAdder counter : failures) {
+            counter.reset();
+        }
+        retries.reset();
+        recovered.reset();
+    }
+}
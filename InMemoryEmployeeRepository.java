@@ -0,0 +1,281 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * InMemoryEmployeeRepository class storing employees without a database
+ * Employees are kept in an int-keyed hash map by ID, with salary-ordered
+ * indexes (overall and per department) for top-earner, salary-range and
+ * percentile queries, and an email index enforcing the same uniqueness
+ * rule as the SQLite table.
+ *
+ * Every read runs under a shared lock and every write under an exclusive one,
+ * so a read always sees a consistent snapshot (never a half-applied write).
+ * Stored and returned employees are copies, so callers cannot change stored
+ * data without going through updateEmployee.
+ *
+ * Data lives only as long as the repository: use it for tests, benchmarks
+ * and ephemeral workloads.
+ */
+public class InMemoryEmployeeRepository implements EmployeeRepository {
+    private static final Comparator<Employee> BY_NAME =
+        Comparator.comparing(Employee::getLastName).thenComparing(Employee::getFirstName);
+    private static final Comparator<Employee> BY_SALARY =
+        Comparator.comparingDouble(Employee::getSalary).thenComparingInt(Employee::getId);
+
+    private final IntHashMap<Employee> employeesById = new IntHashMap<>();
+    private final NavigableSet<Employee> employeesBySalary = new TreeSet<>(BY_SALARY);
+    private final Map<String, NavigableSet<Employee>> employeesByDepartment = new HashMap<>();
+    private final Map<String, Integer> idsByEmail = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int lastId = 0;
+
+    @Override
+    public void addEmployee(Employee employee) {
+        lock.writeLock().lock();
+        try {
+            if (employee.getId() > 0 && employeesById.containsKey(employee.getId())) {
+                throw FailureStats.record(new ConstraintViolationException(
+                    "Error adding employee: ID " + employee.getId() + " already exists"));
+            }
+            if (idsByEmail.containsKey(employee.getEmail())) {
+                throw FailureStats.record(new ConstraintViolationException(
+                    "Error adding employee: email " + employee.getEmail() + " already exists"));
+            }
+
+            // Same as AUTOINCREMENT: generated IDs are never reused
+            int id = employee.getId() > 0 ? employee.getId() : lastId + 1;
+            lastId = Math.max(lastId, id);
+            employee.setId(id);
+            index(copyOf(employee));
+
+            System.out.println("Employee added successfully with ID: " + id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        List<Employee> employees;
+        lock.readLock().lock();
+        try {
+            employees = new ArrayList<>(employeesById.size());
+            collectCopies(employeesById, employees);
+        } finally {
+            lock.readLock().unlock();
+        }
+        employees.sort(Comparator.comparingInt(Employee::getId));
+        return employees;
+    }
+
+    @Override
+    public Employee getEmployeeById(int id) {
+        lock.readLock().lock();
+        try {
+            Employee employee = employeesById.get(id);
+            return employee != null ? copyOf(employee) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateEmployee(Employee employee) {
+        lock.writeLock().lock();
+        try {
+            Employee current = employeesById.get(employee.getId());
+            if (current == null) {
+                throw FailureStats.record(new EmployeeNotFoundException(employee.getId()));
+            }
+            Integer emailOwner = idsByEmail.get(employee.getEmail());
+            if (emailOwner != null && emailOwner != employee.getId()) {
+                throw FailureStats.record(new ConstraintViolationException(
+                    "Error updating employee: email " + employee.getEmail() + " already exists"));
+            }
+
+            unindex(current);
+            index(copyOf(employee));
+            System.out.println("Employee updated successfully!");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteEmployee(int id) {
+        lock.writeLock().lock();
+        try {
+            Employee current = employeesById.get(id);
+            if (current == null) {
+                throw FailureStats.record(new EmployeeNotFoundException(id));
+            }
+            unindex(current);
+            System.out.println("Employee deleted successfully!");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Employee> getEmployeesByDepartment(String department) {
+        List<Employee> employees = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            NavigableSet<Employee> members = employeesByDepartment.get(department);
+            if (members != null) {
+                for (Employee emp : members) {
+                    employees.add(copyOf(emp));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        employees.sort(BY_NAME);
+        return employees;
+    }
+
+    @Override
+    public int getTotalEmployeeCount() {
+        lock.readLock().lock();
+        try {
+            return employeesById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public SalaryStatistics getSalaryStatistics() {
+        lock.readLock().lock();
+        try {
+            if (employeesById.isEmpty()) {
+                return new SalaryStatistics();
+            }
+            double totalSalary = 0.0;
+            for (Employee emp : employeesBySalary) {
+                totalSalary += emp.getSalary();
+            }
+            // Ties on salary keep the lower ID, as the SQLite queries do
+            Employee lowest = employeesBySalary.first();
+            Employee highest = employeesBySalary.ceiling(probe(employeesBySalary.last().getSalary(), Integer.MIN_VALUE));
+            return new SalaryStatistics(employeesById.size(), totalSalary, copyOf(highest), copyOf(lowest));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Employee> getTopEarners(int n, String department) {
+        List<Employee> employees = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            NavigableSet<Employee> source = department == null
+                ? employeesBySalary
+                : employeesByDepartment.get(department);
+            if (source == null) {
+                return employees;
+            }
+
+            // Walk salary groups from the top; within a group, lower IDs come first
+            Employee groupEnd = source.isEmpty() ? null : source.last();
+            while (groupEnd != null && employees.size() < n) {
+                Employee groupStart = probe(groupEnd.getSalary(), Integer.MIN_VALUE);
+                for (Employee emp : source.subSet(groupStart, true, groupEnd, true)) {
+                    if (employees.size() == n) {
+                        break;
+                    }
+                    employees.add(copyOf(emp));
+                }
+                groupEnd = source.lower(groupStart);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return employees;
+    }
+
+    @Override
+    public List<Employee> getEmployeesBySalaryRange(double min, double max) {
+        List<Employee> employees = new ArrayList<>();
+        if (min > max) {
+            return employees;
+        }
+        lock.readLock().lock();
+        try {
+            for (Employee emp : employeesBySalary.subSet(probe(min, Integer.MIN_VALUE), true,
+                                                         probe(max, Integer.MAX_VALUE), true)) {
+                employees.add(copyOf(emp));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return employees;
+    }
+
+    @Override
+    public double getSalaryPercentileRank(double salary) {
+        lock.readLock().lock();
+        try {
+            int total = employeesById.size();
+            if (total == 0) {
+                return 0.0;
+            }
+            int below = employeesBySalary.headSet(probe(salary, Integer.MIN_VALUE), false).size();
+            int atOrBelow = employeesBySalary.headSet(probe(salary, Integer.MAX_VALUE), true).size();
+            return (below + 0.5 * (atOrBelow - below)) * 100.0 / total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add a stored employee to every index (caller holds the write lock)
+     */
+    private void index(Employee employee) {
+        employeesById.put(employee.getId(), employee);
+        employeesBySalary.add(employee);
+        employeesByDepartment.computeIfAbsent(employee.getDepartment(), d -> new TreeSet<>(BY_SALARY))
+            .add(employee);
+        idsByEmail.put(employee.getEmail(), employee.getId());
+    }
+
+    /**
+     * Remove a stored employee from every index (caller holds the write lock)
+     */
+    private void unindex(Employee employee) {
+        employeesById.remove(employee.getId());
+        employeesBySalary.remove(employee);
+        NavigableSet<Employee> members = employeesByDepartment.get(employee.getDepartment());
+        members.remove(employee);
+        if (members.isEmpty()) {
+            employeesByDepartment.remove(employee.getDepartment());
+        }
+        idsByEmail.remove(employee.getEmail());
+    }
+
+    private static void collectCopies(IntHashMap<Employee> source, List<Employee> target) {
+        source.forEachValue(emp -> target.add(copyOf(emp)));
+    }
+
+    /**
+     * Search key for the salary indexes
+     */
+    private static Employee probe(double salary, int id) {
+        Employee key = new Employee();
+        key.setSalary(salary);
+        key.setId(id);
+        return key;
+    }
+
+    private static Employee copyOf(Employee e) {
+        return new Employee(e.getId(), e.getFirstName(), e.getLastName(), e.getEmail(),
+                            e.getDepartment(), e.getSalary(), e.getHireDate());
+    }
+}
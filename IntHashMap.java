@@ -0,0 +1,141 @@
+import java.util.function.Consumer;
+
+/**
+ * IntHashMap class mapping primitive int keys to values
+ * Open addressing with linear probing, so keys are never boxed and lookups
+ * touch one flat array. Not thread-safe; callers synchronize.
+ * @param <V> value type
+ */
+public class IntHashMap<V> {
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private Object[] values;
+    private int size = 0;
+
+    public IntHashMap() {
+        this(16);
+    }
+
+    public IntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) * 2 - 1);
+        keys = new int[capacity];
+        values = new Object[capacity];
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associate a value with a key
+     * @param key int key
+     * @param value value, must not be null
+     * @return previous value for the key, or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("IntHashMap does not store null values");
+        }
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > keys.length * LOAD_FACTOR) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Remove a key
+     * Later entries of the same probe run are shifted back so lookups stay correct
+     * @param key int key
+     * @return removed value, or null if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (values[i] != null && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (values[i] == null) {
+            return null;
+        }
+
+        V removed = (V) values[i];
+        int gap = i;
+        for (int j = (gap + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            int home = slot(keys[j], mask);
+            // Move the entry into the gap unless its home slot lies between gap and j
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        values[gap] = null;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Visit every value in unspecified order
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<V> action) {
+        for (Object value : values) {
+            if (value != null) {
+                action.accept((V) value);
+            }
+        }
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int k = 0; k < oldKeys.length; k++) {
+            if (oldValues[k] != null) {
+                int i = slot(oldKeys[k], mask);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[k];
+                values[i] = oldValues[k];
+            }
+        }
+    }
+
+    private static int slot(int key, int mask) {
+        // Spread sequential IDs across the table
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
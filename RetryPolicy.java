@@ -0,0 +1,141 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RetryPolicy class running SQL operations with retries on transient failures
+ * An operation that fails with SQLITE_BUSY or SQLITE_LOCKED is run again after
+ * an exponentially growing, fully jittered delay (a random time between zero
+ * and base * 2^(attempt - 1), capped at the maximum delay), so competing writers
+ * do not retry in lockstep. Other failures are thrown at once.
+ *
+ * Retries happen only in JDBC auto-commit mode. Inside a transaction begun with
+ * setAutoCommit(false) a busy statement is thrown to the caller, who must roll
+ * back and rerun the whole transaction: repeating one statement cannot undo a
+ * conflict with a newer snapshot. DatabaseConnection.beginTransaction avoids
+ * this by running BEGIN IMMEDIATE through this policy: the begin is retried,
+ * since nothing has been read yet, and once it succeeds the transaction holds
+ * the write lock, so its statements do not fail with SQLITE_BUSY.
+ *
+ * Every failure that escapes is translated into an EmployeeDataException and
+ * counted in FailureStats.
+ *
+ * Defaults can be changed with -Demployee.retry.attempts=N,
+ * -Demployee.retry.baseDelayMs=N and -Demployee.retry.maxDelayMs=N.
+ */
+public class RetryPolicy {
+
+    /**
+     * SQL work to run on a connection
+     * @param <T> result type
+     */
+    @FunctionalInterface
+    public interface SqlOperation<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    private static final RetryPolicy DEFAULT = fromSystemProperties();
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    /**
+     * @param maxAttempts attempts in total, 1 to disable retries
+     * @param baseDelayMillis upper bound of the first delay
+     * @param maxDelayMillis upper bound of any delay
+     */
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        if (maxAttempts < 1 || baseDelayMillis < 0 || maxDelayMillis < baseDelayMillis) {
+            throw new IllegalArgumentException("Invalid retry policy: attempts=" + maxAttempts
+                                               + ", baseDelayMs=" + baseDelayMillis
+                                               + ", maxDelayMs=" + maxDelayMillis);
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Policy read once from system properties at startup
+     */
+    public static RetryPolicy defaultPolicy() {
+        return DEFAULT;
+    }
+
+    /**
+     * Policy from -Demployee.retry.* system properties
+     * (5 attempts, 20 ms base delay and 1000 ms maximum delay when unset)
+     */
+    public static RetryPolicy fromSystemProperties() {
+        return new RetryPolicy(Integer.getInteger("employee.retry.attempts", 5),
+                               Long.getLong("employee.retry.baseDelayMs", 20),
+                               Long.getLong("employee.retry.maxDelayMs", 1000));
+    }
+
+    /**
+     * Run an operation, retrying it while it fails with a transient error
+     * @param conn connection to run on
+     * @param operation what is being done, for error messages (for example "adding employee")
+     * @param work the SQL to run
+     * @return result of the first successful attempt
+     * @throws EmployeeDataException if the operation fails for good
+     */
+    public <T> T execute(Connection conn, String operation, SqlOperation<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = work.run(conn);
+                if (attempt > 1) {
+                    FailureStats.recordRecovered();
+                }
+                return result;
+            } catch (SQLException e) {
+                EmployeeDataException failure = EmployeeDataException.from(operation, e);
+                if (!failure.isTransient() || attempt >= maxAttempts || !inAutoCommit(conn)
+                    || !sleep(delayMillis(attempt))) {
+                    throw FailureStats.record(failure);
+                }
+                FailureStats.recordRetry();
+            }
+        }
+    }
+
+    /**
+     * Jittered delay before the given retry
+     */
+    long delayMillis(int attempt) {
+        long cap = baseDelayMillis << Math.min(attempt - 1, 30);
+        if (cap < 0 || cap > maxDelayMillis) {
+            cap = maxDelayMillis;
+        }
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static boolean inAutoCommit(Connection conn) {
+        try {
+            return conn.getAutoCommit();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Sleep before a retry
+     * @return false if interrupted, in which case no further retry is made
+     */
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{attempts=" + maxAttempts + ", baseDelayMs=" + baseDelayMillis
+               + ", maxDelayMs=" + maxDelayMillis + "}";
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * SalaryStatistics class holding aggregate salary figures
+ * Partial statistics (for example one per shard) can be merged into a total
+ */
+public class SalaryStatistics {
+    private final int count;
+    private final double totalSalary;
+    private final Employee highestPaid;
+    private final Employee lowestPaid;
+
+    // Statistics for no employees
+    public SalaryStatistics() {
+        this(0, 0.0, null, null);
+    }
+
+    public SalaryStatistics(int count, double totalSalary, Employee highestPaid, Employee lowestPaid) {
+        this.count = count;
+        this.totalSalary = totalSalary;
+        this.highestPaid = highestPaid;
+        this.lowestPaid = lowestPaid;
+    }
+
+    public int getCount() { return count; }
+
+    public double getTotalSalary() { return totalSalary; }
+
+    public double getAverageSalary() {
+        return count > 0 ? totalSalary / count : 0.0;
+    }
+
+    public Employee getHighestPaid() { return highestPaid; }
+
+    public Employee getLowestPaid() { return lowestPaid; }
+
+    /**
+     * Combine these statistics with another set covering different employees
+     * Ties on salary keep the employee with the lower ID
+     * @param other statistics to merge with
+     * @return merged statistics
+     */
+    public SalaryStatistics merge(SalaryStatistics other) {
+        return new SalaryStatistics(
+            count + other.count,
+            totalSalary + other.totalSalary,
+            pick(highestPaid, other.highestPaid, true),
+            pick(lowestPaid, other.lowestPaid, false)
+        );
+    }
+
+    private static Employee pick(Employee a, Employee b, boolean highest) {
+        if (a == null) return b;
+        if (b == null) return a;
+        int cmp = Double.compare(a.getSalary(), b.getSalary());
+        if (cmp == 0) {
+            return a.getId() <= b.getId() ? a : b;
+        }
+        return (cmp > 0) == highest ? a : b;
+    }
+}
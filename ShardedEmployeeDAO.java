@@ -0,0 +1,495 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * ShardedEmployeeDAO class spreading employees across several SQLite files
+ * Each shard is a separate database with its own lock, so writes to different
+ * shards proceed in parallel.
+ *
+ * Routing: an employee's ID encodes its shard (id % shardCount), so lookups,
+ * updates and deletes go to exactly one shard. New employees are placed by
+ * department hash or round-robin depending on the partitioning mode; an
+ * employee added with a preset ID goes to the shard that ID encodes.
+ * Listings, counts and statistics are queried on all shards in parallel and merged.
+ *
+ * Email uniqueness is global: each email is claimed in an email_claims table on
+ * the shard chosen by the email's hash before the employee row is written.
+ * A failed write releases its claim again before the failure is rethrown, and
+ * claims orphaned by a crash between the two files' writes are removed on open.
+ *
+ * Every shard file records the shard count and its own index when first opened,
+ * and opening it as part of a different layout is refused.
+ */
+public class ShardedEmployeeDAO implements EmployeeRepository {
+
+    /**
+     * How new employees are assigned to shards
+     */
+    public enum Partitioning {
+        // Employees of one department share a shard
+        DEPARTMENT,
+        // Employees are spread evenly over all shards
+        ID_HASH
+    }
+
+    private static final String SHARD_FILE_PATTERN = "employee_database-shard%d.db";
+    private static final Comparator<Employee> BY_SALARY = Comparator.comparingDouble(Employee::getSalary);
+
+    private final List<Connection> connections;
+    private final List<EmployeeDAO> shards;
+    private final Partitioning partitioning;
+    private final AtomicInteger[] nextLocalId;
+    private final AtomicInteger roundRobin = new AtomicInteger();
+    private final ExecutorService fanOutPool;
+    private final RetryPolicy retryPolicy = RetryPolicy.defaultPolicy();
+
+    private ShardedEmployeeDAO(List<Connection> connections, List<String> files,
+                               Partitioning partitioning) throws SQLException {
+        this.connections = connections;
+        this.partitioning = partitioning;
+        this.shards = new ArrayList<>();
+        this.nextLocalId = new AtomicInteger[connections.size()];
+
+        checkShardLayout(connections, files);
+        int highestId = 0;
+        for (Connection conn : connections) {
+            DatabaseConnection.createTables(conn);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS email_claims (email TEXT PRIMARY KEY, employee_id INTEGER NOT NULL)");
+                try (ResultSet rs = stmt.executeQuery(
+                         "SELECT COALESCE(MAX(seq), 0) FROM sqlite_sequence WHERE name = 'employees'")) {
+                    rs.next();
+                    highestId = Math.max(highestId, rs.getInt(1));
+                }
+            }
+            shards.add(new EmployeeDAO(conn, retryPolicy));
+        }
+        // Every shard continues above the highest ID ever used on any shard, so IDs of
+        // deleted employees are never handed out again and generated IDs stay above
+        // preset ones (the same guarantees AUTOINCREMENT gives a single file)
+        for (int i = 0; i < connections.size(); i++) {
+            nextLocalId[i] = new AtomicInteger(highestId / connections.size());
+        }
+        removeOrphanedClaims(connections, files);
+
+        this.fanOutPool = Executors.newFixedThreadPool(connections.size(), task -> {
+            Thread thread = new Thread(task, "shard-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Open (creating if needed) the shard files in the working directory
+     * @param shardCount number of shards
+     * @param partitioning how new employees are assigned to shards
+     * @return ShardedEmployeeDAO over the shard files
+     * @throws EmployeeDataException if a shard file cannot be opened or set up
+     */
+    public static ShardedEmployeeDAO open(int shardCount, Partitioning partitioning) {
+        List<Connection> connections = new ArrayList<>();
+        List<String> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                files.add(String.format(SHARD_FILE_PATTERN, i));
+                connections.add(DatabaseConnection.openConnection(files.get(i)));
+            }
+            ShardedEmployeeDAO dao = new ShardedEmployeeDAO(connections, files, partitioning);
+            System.out.println("Opened " + shardCount + " shard(s), partitioned by "
+                               + partitioning.name().toLowerCase());
+            return dao;
+        } catch (SQLException e) {
+            closeAll(connections);
+            throw FailureStats.record(EmployeeDataException.from("opening shards", e));
+        } catch (EmployeeDataException e) {
+            closeAll(connections);
+            throw e;
+        }
+    }
+
+    @Override
+    public void addEmployee(Employee employee) {
+        int presetId = employee.getId();
+        int shard;
+        int id;
+        if (presetId > 0) {
+            shard = presetId % shards.size();
+            id = presetId;
+        } else {
+            shard = placementShard(employee);
+            id = nextLocalId[shard].incrementAndGet() * shards.size() + shard;
+        }
+
+        claimEmail(employee.getEmail(), id);
+        employee.setId(id);
+        EmployeeDAO dao = shards.get(shard);
+        try {
+            synchronized (dao) {
+                dao.addEmployee(employee);
+            }
+        } catch (EmployeeDataException e) {
+            employee.setId(presetId);
+            releaseEmailAfterFailure(employee.getEmail(), e);
+            throw e;
+        }
+        if (presetId > 0) {
+            // Keep generated IDs on every shard above the preset one. Shards the
+            // round-robin pointer has already passed this round start one row higher,
+            // so round-robin IDs still increase in the order employees are added
+            int row = presetId / shards.size();
+            int pointer = Math.floorMod(roundRobin.get(), shards.size());
+            for (int i = 0; i < nextLocalId.length; i++) {
+                nextLocalId[i].accumulateAndGet(i < pointer ? row + 1 : row, Math::max);
+            }
+        }
+    }
+
+    @Override
+    public Employee getEmployeeById(int id) {
+        EmployeeDAO dao = shardFor(id);
+        if (dao == null) {
+            return null;
+        }
+        synchronized (dao) {
+            return dao.getEmployeeById(id);
+        }
+    }
+
+    @Override
+    public void updateEmployee(Employee employee) {
+        Employee current = getEmployeeById(employee.getId());
+        if (current == null) {
+            throw FailureStats.record(new EmployeeNotFoundException(employee.getId()));
+        }
+
+        boolean emailChanged = !current.getEmail().equals(employee.getEmail());
+        if (emailChanged) {
+            claimEmail(employee.getEmail(), employee.getId());
+        }
+
+        EmployeeDAO dao = shardFor(employee.getId());
+        try {
+            synchronized (dao) {
+                dao.updateEmployee(employee);
+            }
+        } catch (EmployeeDataException e) {
+            if (emailChanged) {
+                releaseEmailAfterFailure(employee.getEmail(), e);
+            }
+            throw e;
+        }
+        if (emailChanged) {
+            releaseEmail(current.getEmail());
+        }
+    }
+
+    @Override
+    public void deleteEmployee(int id) {
+        Employee current = getEmployeeById(id);
+        if (current == null) {
+            throw FailureStats.record(new EmployeeNotFoundException(id));
+        }
+
+        EmployeeDAO dao = shardFor(id);
+        synchronized (dao) {
+            dao.deleteEmployee(id);
+        }
+        releaseEmail(current.getEmail());
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        List<Employee> employees = new ArrayList<>();
+        fanOut(EmployeeDAO::getAllEmployees).forEach(employees::addAll);
+        employees.sort(Comparator.comparingInt(Employee::getId));
+        return employees;
+    }
+
+    /**
+     * Search employees by department on every shard
+     * Employees keep their shard when their department changes, so all shards are searched
+     */
+    @Override
+    public List<Employee> getEmployeesByDepartment(String department) {
+        List<Employee> employees = new ArrayList<>();
+        fanOut(dao -> dao.getEmployeesByDepartment(department)).forEach(employees::addAll);
+        employees.sort(Comparator.comparing(Employee::getLastName).thenComparing(Employee::getFirstName));
+        return employees;
+    }
+
+    @Override
+    public int getTotalEmployeeCount() {
+        return fanOut(EmployeeDAO::getTotalEmployeeCount).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public SalaryStatistics getSalaryStatistics() {
+        return fanOut(EmployeeDAO::getSalaryStatistics).stream()
+            .reduce(new SalaryStatistics(), SalaryStatistics::merge);
+    }
+
+    /**
+     * Top earners of every shard, merged and cut to n
+     */
+    @Override
+    public List<Employee> getTopEarners(int n, String department) {
+        List<Employee> employees = new ArrayList<>();
+        fanOut(dao -> dao.getTopEarners(n, department)).forEach(employees::addAll);
+        employees.sort(BY_SALARY.reversed().thenComparingInt(Employee::getId));
+        return employees.size() > n ? new ArrayList<>(employees.subList(0, Math.max(0, n))) : employees;
+    }
+
+    @Override
+    public List<Employee> getEmployeesBySalaryRange(double min, double max) {
+        List<Employee> employees = new ArrayList<>();
+        fanOut(dao -> dao.getEmployeesBySalaryRange(min, max)).forEach(employees::addAll);
+        employees.sort(BY_SALARY.thenComparingInt(Employee::getId));
+        return employees;
+    }
+
+    @Override
+    public double getSalaryPercentileRank(double salary) {
+        int[] totals = new int[3];
+        for (int[] counts : fanOut(dao -> dao.countSalariesAround(salary))) {
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += counts[i];
+            }
+        }
+        return totals[2] > 0 ? (totals[0] + 0.5 * totals[1]) * 100.0 / totals[2] : 0.0;
+    }
+
+    /**
+     * Close the shard connections and stop the query pool
+     */
+    @Override
+    public void close() {
+        fanOutPool.shutdown();
+        closeAll(connections);
+        System.out.println("Shard connections closed.");
+    }
+
+    /**
+     * Refuse shard files that belong to a different shard layout
+     * IDs and email claims are routed by id % N, so files written with another N
+     * would misroute lookups, and orphan cleanup would delete valid claims.
+     * Each file keeps its shard count and index in shard_info. All files are
+     * checked before anything is written; files without the record (new, or
+     * created before it existed) then get it, provided every employee they
+     * hold belongs to them under the requested count.
+     * @throws EmployeeDataException if any file belongs to a different layout
+     */
+    private static void checkShardLayout(List<Connection> connections, List<String> files) throws SQLException {
+        int count = connections.size();
+        boolean[] recorded = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            Connection conn = connections.get(i);
+            if (tableExists(conn, "shard_info")) {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT shard_count, shard_index FROM shard_info")) {
+                    if (rs.next()) {
+                        if (rs.getInt(1) != count || rs.getInt(2) != i) {
+                            throw FailureStats.record(new EmployeeDataException(
+                                files.get(i) + " is shard " + rs.getInt(2) + " of " + rs.getInt(1) + ", not shard "
+                                + i + " of " + count + "; open it with -Demployee.shards=" + rs.getInt(1), null));
+                        }
+                        recorded[i] = true;
+                    }
+                }
+            }
+            if (!recorded[i] && tableExists(conn, "employees")) {
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                         "SELECT COUNT(*) FROM employees WHERE id % ? != ?")) {
+                    pstmt.setInt(1, count);
+                    pstmt.setInt(2, i);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (rs.next() && rs.getInt(1) > 0) {
+                            throw FailureStats.record(new EmployeeDataException(
+                                files.get(i) + " holds employees of a different shard count than " + count, null));
+                        }
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (recorded[i]) {
+                continue;
+            }
+            try (Statement stmt = connections.get(i).createStatement()) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS shard_info (shard_count INTEGER NOT NULL, shard_index INTEGER NOT NULL)");
+            }
+            try (PreparedStatement pstmt = connections.get(i).prepareStatement(
+                     "INSERT INTO shard_info (shard_count, shard_index) VALUES (?, ?)")) {
+                pstmt.setInt(1, count);
+                pstmt.setInt(2, i);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                 "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Delete email claims whose employee row does not exist with that email
+     * Claims and rows live in different files, so a crash between claiming an email
+     * and writing the row, or between changing a row and releasing its old email,
+     * leaves a claim that would otherwise block the email for good.
+     * Each claim shard checks its claims against the owning shard (employee_id % N),
+     * attached to the same connection so the check is one DELETE per shard pair.
+     */
+    private static void removeOrphanedClaims(List<Connection> connections, List<String> files) throws SQLException {
+        int removed = 0;
+        for (int claimShard = 0; claimShard < connections.size(); claimShard++) {
+            Connection conn = connections.get(claimShard);
+            for (int rowShard = 0; rowShard < connections.size(); rowShard++) {
+                boolean attached = rowShard != claimShard;
+                if (attached) {
+                    try (PreparedStatement attach = conn.prepareStatement("ATTACH DATABASE ? AS row_shard")) {
+                        attach.setString(1, files.get(rowShard));
+                        attach.execute();
+                    }
+                }
+                String rows = attached ? "row_shard.employees" : "main.employees";
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                         "DELETE FROM email_claims WHERE employee_id % ? = ? AND NOT EXISTS ("
+                         + "SELECT 1 FROM " + rows + " e WHERE e.id = email_claims.employee_id"
+                         + " AND e.email = email_claims.email)")) {
+                    pstmt.setInt(1, connections.size());
+                    pstmt.setInt(2, rowShard);
+                    removed += pstmt.executeUpdate();
+                } finally {
+                    if (attached) {
+                        try (Statement stmt = conn.createStatement()) {
+                            stmt.execute("DETACH DATABASE row_shard");
+                        }
+                    }
+                }
+            }
+        }
+        if (removed > 0) {
+            System.out.println("Removed " + removed + " orphaned email claim(s)");
+        }
+    }
+
+    /**
+     * Pick the shard a new employee is stored on
+     */
+    private int placementShard(Employee employee) {
+        if (partitioning == Partitioning.DEPARTMENT) {
+            return Math.floorMod(employee.getDepartment().hashCode(), shards.size());
+        }
+        return Math.floorMod(roundRobin.getAndIncrement(), shards.size());
+    }
+
+    /**
+     * Shard holding the employee with this ID, or null for an invalid ID
+     */
+    private EmployeeDAO shardFor(int id) {
+        return id > 0 ? shards.get(id % shards.size()) : null;
+    }
+
+    /**
+     * Record an email as taken on the shard that owns it
+     * @throws ConstraintViolationException if another employee already uses the email
+     */
+    private void claimEmail(String email, int employeeId) {
+        int shard = Math.floorMod(email.hashCode(), shards.size());
+        synchronized (shards.get(shard)) {
+            retryPolicy.execute(connections.get(shard), "claiming email " + email, conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                         "INSERT INTO email_claims (email, employee_id) VALUES (?, ?)")) {
+                    pstmt.setString(1, email);
+                    pstmt.setInt(2, employeeId);
+                    return pstmt.executeUpdate();
+                }
+            });
+        }
+    }
+
+    /**
+     * Free an email claimed with claimEmail
+     */
+    private void releaseEmail(String email) {
+        int shard = Math.floorMod(email.hashCode(), shards.size());
+        synchronized (shards.get(shard)) {
+            retryPolicy.execute(connections.get(shard), "releasing email " + email, conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                         "DELETE FROM email_claims WHERE email = ?")) {
+                    pstmt.setString(1, email);
+                    return pstmt.executeUpdate();
+                }
+            });
+        }
+    }
+
+    /**
+     * Free a claim after the write it was made for failed
+     * A failure to release is attached to the original failure instead of replacing it
+     */
+    private void releaseEmailAfterFailure(String email, EmployeeDataException failure) {
+        try {
+            releaseEmail(email);
+        } catch (EmployeeDataException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Run a query on every shard in parallel and collect the per-shard results
+     */
+    private <T> List<T> fanOut(Function<EmployeeDAO, T> query) {
+        List<Future<T>> futures = new ArrayList<>();
+        for (EmployeeDAO dao : shards) {
+            futures.add(fanOutPool.submit(() -> {
+                synchronized (dao) {
+                    return query.apply(dao);
+                }
+            }));
+        }
+
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw FailureStats.record(new EmployeeDataException("Interrupted while querying shards", e));
+            } catch (ExecutionException e) {
+                // Shard DAOs throw typed, already counted failures; anything else is unexpected
+                if (e.getCause() instanceof EmployeeDataException failure) {
+                    throw failure;
+                }
+                throw FailureStats.record(new EmployeeDataException(
+                    "Error querying shard: " + e.getCause().getMessage(), e.getCause()));
+            }
+        }
+        return results;
+    }
+
+    private static void closeAll(List<Connection> connections) {
+        for (Connection conn : connections) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing shard connection!");
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * TableRenderer class for printing employee listings as fixed-width tables
+ * Rows are built in one reused StringBuilder and written in large chunks,
+ * with no per-row String.format, println or String allocation.
+ * Salaries are printed with two decimals and a '.' separator regardless of locale.
+ */
+public class TableRenderer {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final char[] SPACES = " ".repeat(128).toCharArray();
+    private static final String NEWLINE = System.lineSeparator();
+
+    private enum Kind { INT, TEXT, MONEY }
+
+    private static class Column {
+        final String header;
+        final Kind kind;
+        final ToIntFunction<Employee> intValue;
+        final Function<Employee, String> textValue;
+        final ToDoubleFunction<Employee> moneyValue;
+        final int minWidth;
+        int width;
+
+        Column(String header, int width, Kind kind, ToIntFunction<Employee> intValue,
+               Function<Employee, String> textValue, ToDoubleFunction<Employee> moneyValue) {
+            this.header = header;
+            this.minWidth = width;
+            this.width = width;
+            this.kind = kind;
+            this.intValue = intValue;
+            this.textValue = textValue;
+            this.moneyValue = moneyValue;
+        }
+    }
+
+    private final List<Column> columns = new ArrayList<>();
+    // Lines are collected here and handed to the writer in BUFFER_SIZE chunks
+    private final StringBuilder buffer = new StringBuilder(BUFFER_SIZE + 256);
+    private char[] chunk = new char[BUFFER_SIZE + 256];
+    private int pageSize = 0;
+    private BooleanSupplier nextPage = () -> true;
+
+    /**
+     * Add an integer column
+     * @param width minimum column width; fitWidths only widens it
+     */
+    public TableRenderer intColumn(String header, int width, ToIntFunction<Employee> value) {
+        columns.add(new Column(header, width, Kind.INT, value, null, null));
+        return this;
+    }
+
+    /**
+     * Add a text column
+     * @param width minimum column width; fitWidths only widens it
+     */
+    public TableRenderer textColumn(String header, int width, Function<Employee, String> value) {
+        columns.add(new Column(header, width, Kind.TEXT, null, value, null));
+        return this;
+    }
+
+    /**
+     * Add a money column, printed as $ followed by the amount with two decimals
+     * @param width minimum column width; fitWidths only widens it
+     */
+    public TableRenderer moneyColumn(String header, int width, ToDoubleFunction<Employee> value) {
+        columns.add(new Column(header, width, Kind.MONEY, null, null, value));
+        return this;
+    }
+
+    /**
+     * Pause after every pageSize rows
+     * @param pageSize rows per page, 0 to disable paging
+     * @param nextPage called at each page break; returns false to stop printing
+     */
+    public TableRenderer pager(int pageSize, BooleanSupplier nextPage) {
+        this.pageSize = pageSize;
+        this.nextPage = nextPage;
+        return this;
+    }
+
+    /**
+     * Widen every column to fit its header and its widest value among a sample of rows
+     * Columns never shrink below the width they were added with. Rows outside the
+     * sample that are wider simply push the line out, as %-Ns would
+     * @param rows rows that will be rendered
+     * @param sampleSize number of rows to inspect, spread evenly over the list
+     */
+    public TableRenderer fitWidths(List<Employee> rows, int sampleSize) {
+        for (Column column : columns) {
+            column.width = Math.max(column.minWidth, column.header.length());
+        }
+        if (rows.isEmpty() || sampleSize <= 0) {
+            return this;
+        }
+
+        int step = Math.max(1, rows.size() / sampleSize);
+        for (int i = 0; i < rows.size(); i += step) {
+            Employee emp = rows.get(i);
+            for (Column column : columns) {
+                buffer.setLength(0);
+                appendValue(column, emp);
+                column.width = Math.max(column.width, buffer.length());
+            }
+        }
+        buffer.setLength(0);
+        return this;
+    }
+
+    /**
+     * Write the header, separator and one line per row
+     * @param rows rows to print
+     * @param out destination; flushed but not closed
+     * @return number of rows written (fewer than rows.size() if the pager stopped early)
+     */
+    public int render(List<Employee> rows, Writer out) throws IOException {
+        int separatorWidth = -1;
+        for (int c = 0; c < columns.size(); c++) {
+            Column column = columns.get(c);
+            int start = startCell(c);
+            buffer.append(column.header);
+            padCell(start, column.width);
+            separatorWidth += column.width + 1;
+        }
+        endLine(out);
+        buffer.append("-".repeat(Math.max(0, separatorWidth)));
+        endLine(out);
+
+        int written = 0;
+        for (Employee emp : rows) {
+            for (int c = 0; c < columns.size(); c++) {
+                Column column = columns.get(c);
+                int start = startCell(c);
+                appendValue(column, emp);
+                padCell(start, column.width);
+            }
+            endLine(out);
+            written++;
+
+            if (pageSize > 0 && written % pageSize == 0 && written < rows.size()) {
+                drain(out);
+                out.flush();
+                if (!nextPage.getAsBoolean()) {
+                    break;
+                }
+            }
+        }
+        drain(out);
+        out.flush();
+        return written;
+    }
+
+    /**
+     * Buffered writer over System.out for use with render
+     * Flush it (render does) but do not close it, which would close System.out
+     */
+    public static Writer consoleWriter() {
+        return new BufferedWriter(new OutputStreamWriter(System.out), BUFFER_SIZE);
+    }
+
+    private void appendValue(Column column, Employee emp) {
+        switch (column.kind) {
+            case INT:
+                buffer.append(column.intValue.applyAsInt(emp));
+                break;
+            case TEXT:
+                buffer.append(column.textValue.apply(emp));
+                break;
+            case MONEY:
+                buffer.append('$');
+                appendMoney(buffer, column.moneyValue.applyAsDouble(emp));
+                break;
+        }
+    }
+
+    /**
+     * Append an amount with exactly two decimals, rounded half-up to the cent
+     */
+    static void appendMoney(StringBuilder sb, double amount) {
+        long cents = Math.round(Math.abs(amount) * 100);
+        if (amount < 0 && cents != 0) {
+            sb.append('-');
+        }
+        sb.append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+    /**
+     * Add the gap before every column but the first, returning where the cell starts
+     */
+    private int startCell(int columnIndex) {
+        if (columnIndex > 0) {
+            buffer.append(' ');
+        }
+        return buffer.length();
+    }
+
+    /**
+     * Pad a left-aligned cell with spaces up to the column width
+     */
+    private void padCell(int start, int width) {
+        int missing = width - (buffer.length() - start);
+        while (missing > 0) {
+            int n = Math.min(missing, SPACES.length);
+            buffer.append(SPACES, 0, n);
+            missing -= n;
+        }
+    }
+
+    private void endLine(Writer out) throws IOException {
+        buffer.append(NEWLINE);
+        if (buffer.length() >= BUFFER_SIZE) {
+            drain(out);
+        }
+    }
+
+    /**
+     * Copy the collected lines to the writer without creating a String
+     */
+    private void drain(Writer out) throws IOException {
+        int length = buffer.length();
+        if (chunk.length < length) {
+            chunk = new char[length];
+        }
+        buffer.getChars(0, length, chunk, 0);
+        out.write(chunk, 0, length);
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,148 @@
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.*;
+import java.util.Arrays;
+
+/**
+ * BackupLatencyCheck - verifies that an online backup does not stall writers
+ * Seeds a large database, measures insert latency without a backup, then again
+ * while DatabaseBackup.backup runs on another thread, and fails unless
+ *
+ *     p99 during backup <= FACTOR * baseline p99 + SLACK_MS
+ *
+ * Only inserts that start while the backup is still running count towards the
+ * second p99, and at least MIN_SAMPLES of them are required (raise seedRows
+ * for a longer backup otherwise). It also checks that the backup holds every
+ * seeded row.
+ * Creates employee_database.db in the working directory and deletes it again,
+ * so run it from an empty directory; it refuses to touch an existing database.
+ *
+ * Usage: java BackupLatencyCheck [seedRows] [factor] [slackMs]
+ * (defaults 300000, 3.0 and 2.0)
+ * Exit code 0 if the bound holds, 1 otherwise.
+ */
+public class BackupLatencyCheck {
+    private static final int WARMUP_INSERTS = 500;
+    private static final int MEASURED_INSERTS = 2000;
+    private static final int MIN_SAMPLES = 200;
+
+    public static void main(String[] args) throws Exception {
+        int seedRows = args.length > 0 ? Integer.parseInt(args[0]) : 300_000;
+        double factor = args.length > 1 ? Double.parseDouble(args[1]) : 3.0;
+        double slackMillis = args.length > 2 ? Double.parseDouble(args[2]) : 2.0;
+
+        File dbFile = new File(DatabaseConnection.getDatabaseFile());
+        if (dbFile.exists()) {
+            System.err.println("Refusing to run: " + dbFile.getAbsolutePath() + " already exists");
+            System.exit(2);
+        }
+        File backupFile = File.createTempFile("backup-latency-", ".db");
+        backupFile.delete();
+
+        // Keep the DAO's per-insert status lines out of the report
+        PrintStream report = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        boolean ok;
+        try {
+            DatabaseConnection.initializeDatabase();
+            seed(DatabaseConnection.getConnection(), seedRows);
+            EmployeeDAO dao = new EmployeeDAO();
+
+            insertLatencies(dao, WARMUP_INSERTS, "warmup");
+            long[] baseline = insertLatencies(dao, MEASURED_INSERTS, "baseline");
+
+            boolean[] backedUp = new boolean[1];
+            Thread backupThread = new Thread(() -> backedUp[0] = DatabaseBackup.backup(backupFile.getPath()));
+            backupThread.start();
+            long[] during = insertLatenciesWhile(dao, backupThread);
+            backupThread.join();
+
+            int backupRows = countRows(backupFile.getPath());
+            double baseP99 = percentileMillis(baseline, 0.99);
+            double duringP99 = percentileMillis(during, 0.99);
+            double bound = factor * baseP99 + slackMillis;
+
+            report.printf("baseline: p50 %.3f ms, p99 %.3f ms%n", percentileMillis(baseline, 0.5), baseP99);
+            report.printf("backup:   p50 %.3f ms, p99 %.3f ms (bound %.3f ms)%n",
+                          percentileMillis(during, 0.5), duringP99, bound);
+            report.println("inserts during backup: " + during.length + " (need " + MIN_SAMPLES + ")");
+            report.println("backup rows: " + backupRows + " (seeded " + seedRows + ")");
+
+            ok = backedUp[0] && backupRows >= seedRows && during.length >= MIN_SAMPLES && duringP99 <= bound;
+            report.println(ok ? "PASS" : "FAIL");
+        } finally {
+            DatabaseConnection.closeConnection();
+            backupFile.delete();
+            deleteDatabase(dbFile.getPath());
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static void seed(Connection conn, int rows) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                 "INSERT INTO employees (first_name, last_name, email, department, salary, hire_date) "
+                 + "VALUES ('Seed', 'Row', ?, 'Engineering', 50000, '2024-01-01')")) {
+            for (int i = 0; i < rows; i++) {
+                pstmt.setString(1, "seed" + i + "@example.com");
+                pstmt.addBatch();
+                if (i % 10_000 == 9_999) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    private static long[] insertLatencies(EmployeeDAO dao, int count, String tag) {
+        long[] nanos = new long[count];
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            dao.addEmployee(new Employee("Load", "Test", tag + i + "@example.com", "Engineering", 1000, "2024-01-01"));
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    /**
+     * Insert and time rows until the given thread has finished
+     */
+    private static long[] insertLatenciesWhile(EmployeeDAO dao, Thread thread) {
+        long[] nanos = new long[1024];
+        int count = 0;
+        while (thread.isAlive()) {
+            long start = System.nanoTime();
+            dao.addEmployee(new Employee("Load", "Test", "during" + count + "@example.com", "Engineering", 1000, "2024-01-01"));
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = System.nanoTime() - start;
+        }
+        nanos = Arrays.copyOf(nanos, Math.max(count, 1));
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double p) {
+        return sortedNanos[(int) Math.min(sortedNanos.length - 1, Math.ceil(p * sortedNanos.length) - 1)] / 1e6;
+    }
+
+    private static void deleteDatabase(String file) {
+        for (String suffix : new String[] { "", "-wal", "-shm" }) {
+            new File(file + suffix).delete();
+        }
+    }
+
+    private static int countRows(String file) throws SQLException {
+        try (Connection conn = DatabaseConnection.openConnection(file);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM employees")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * EmployeeRepositoryConformance - runs one random workload against every backend
+ * EmployeeDAO (fresh SQLite file), InMemoryEmployeeRepository and
+ * ShardedEmployeeDAO (3 shards, round-robin) receive the same seeded sequence of
+ * adds, updates, deletes, lookups, listings and salary queries, including
+ * duplicate emails, unknown IDs, preset IDs and salary ties. Every result and every thrown
+ * exception type is written to a transcript, and the transcripts must match.
+ *
+ * Backends assign different IDs, so each added employee gets a handle (its
+ * insertion number) and transcripts refer to handles. Round-robin shard IDs
+ * still increase in insertion order, so ID ordering and ID tie-breaks compare
+ * exactly. A preset ID is either just above every ID the backend has used, or
+ * the ID of an earlier employee (rejected unless that employee was deleted).
+ * Department search order is only defined by name, so it is checked
+ * and ties are put in handle order.
+ *
+ * FailureStats is checked too: its counts must equal the exceptions seen.
+ *
+ * The shard files are created in the working directory, so run it from an empty
+ * directory; it refuses to touch existing shard files.
+ *
+ * Usage: java EmployeeRepositoryConformance [operations] [seed]
+ * (defaults 10000 and 42). Exit code 0 if all backends agree, 1 otherwise.
+ */
+public class EmployeeRepositoryConformance {
+    private static final int SHARDS = 3;
+    private static final String[] FIRST_NAMES = { "Ann", "Bob", "Cid", "Dee" };
+    private static final String[] LAST_NAMES = { "Ito", "Kim", "Lee" };
+    private static final String[] DEPARTMENTS = { "Engineering", "Marketing", "Sales", "HR" };
+    // Few distinct salaries, so ties are common; all exact in binary
+    private static final double[] SALARIES = { 40000, 52500.5, 52500.5, 61000.25, 75000, 90000 };
+
+    private final Random random;
+    private final EmployeeRepository repository;
+    // Backend ID of every handle
+    private final List<Integer> ids = new ArrayList<>();
+    private final List<String> transcript = new ArrayList<>();
+    private final long[] thrown = new long[EmployeeDataException.Type.values().length];
+    private int nextEmail = 0;
+    private int highestId = 0;
+
+    private EmployeeRepositoryConformance(EmployeeRepository repository, long seed) {
+        this.repository = repository;
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+
+        for (int i = 0; i < SHARDS; i++) {
+            if (new File(shardFile(i)).exists()) {
+                System.err.println("Refusing to run: " + shardFile(i) + " already exists");
+                System.exit(2);
+            }
+        }
+        File sqliteDir = Files.createTempDirectory("conformance-").toFile();
+        File sqliteFile = new File(sqliteDir, "employees.db");
+
+        PrintStream report = System.out;
+        // Keep the repositories' status lines out of the report
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        List<String> names = List.of("sqlite", "memory", "sharded");
+        List<List<String>> transcripts = new ArrayList<>();
+        boolean countsOk = true;
+        try (Connection conn = DatabaseConnection.openConnection(sqliteFile.getPath())) {
+            DatabaseConnection.createTables(conn);
+            EmployeeRepository[] backends = {
+                new EmployeeDAO(conn),
+                new InMemoryEmployeeRepository(),
+                ShardedEmployeeDAO.open(SHARDS, ShardedEmployeeDAO.Partitioning.ID_HASH)
+            };
+            for (int b = 0; b < backends.length; b++) {
+                try (EmployeeRepository backend = backends[b]) {
+                    FailureStats.reset();
+                    EmployeeRepositoryConformance run = new EmployeeRepositoryConformance(backend, seed);
+                    for (int op = 0; op < operations; op++) {
+                        run.step(op);
+                    }
+                    run.verifyAll();
+                    transcripts.add(run.transcript);
+                    report.println(names.get(b) + ": " + FailureStats.summary());
+                    countsOk &= run.checkFailureStats(names.get(b), report);
+                }
+            }
+        } finally {
+            deleteDatabase(sqliteFile.getPath());
+            sqliteDir.delete();
+            for (int i = 0; i < SHARDS; i++) {
+                deleteDatabase(shardFile(i));
+            }
+        }
+
+        boolean same = true;
+        for (int b = 0; b < transcripts.size(); b++) {
+            report.println(names.get(b) + ": " + transcripts.get(b).size() + " transcript lines");
+            if (b > 0) {
+                same &= compare(names.get(0), transcripts.get(0), names.get(b), transcripts.get(b), report);
+            }
+        }
+        boolean ok = same && countsOk;
+        report.println(ok ? "PASS" : "FAIL");
+        System.exit(ok ? 0 : 1);
+    }
+
+    /**
+     * Run one randomly chosen operation and record its outcome
+     */
+    private void step(int op) {
+        int choice = random.nextInt(100);
+        String line;
+        try {
+            if (choice < 30 || ids.isEmpty()) {
+                line = add();
+            } else if (choice < 45) {
+                line = update();
+            } else if (choice < 55) {
+                int handle = anyHandle();
+                repository.deleteEmployee(ids.get(handle));
+                line = "delete h" + handle;
+            } else if (choice < 65) {
+                int handle = anyHandle();
+                line = "get h" + handle + " " + format(repository.getEmployeeById(ids.get(handle)));
+            } else if (choice < 70) {
+                line = "department " + formatByName(repository.getEmployeesByDepartment(department()));
+            } else if (choice < 75) {
+                line = "count " + repository.getTotalEmployeeCount();
+            } else if (choice < 80) {
+                SalaryStatistics stats = repository.getSalaryStatistics();
+                line = "stats " + stats.getCount() + " " + stats.getAverageSalary()
+                       + " " + format(stats.getHighestPaid()) + " " + format(stats.getLowestPaid());
+            } else if (choice < 88) {
+                String department = random.nextBoolean() ? null : department();
+                line = "top " + format(repository.getTopEarners(random.nextInt(8), department));
+            } else if (choice < 94) {
+                double min = salary();
+                double max = salary();
+                line = "range " + format(repository.getEmployeesBySalaryRange(min, max));
+            } else if (choice < 99) {
+                line = "percentile " + repository.getSalaryPercentileRank(salary());
+            } else {
+                line = "all " + format(repository.getAllEmployees());
+            }
+        } catch (EmployeeDataException e) {
+            thrown[e.getType().ordinal()]++;
+            line = "threw " + e.getClass().getSimpleName();
+        }
+        transcript.add(op + " " + line);
+    }
+
+    private String add() {
+        // One add in ten reuses an existing email and must be rejected
+        String email = random.nextInt(10) == 0 && nextEmail > 0
+            ? "user" + random.nextInt(nextEmail) + "@example.com"
+            : "user" + nextEmail++ + "@example.com";
+        // One add in twenty presets the ID, a fresh one or that of an earlier employee
+        int presetId = 0;
+        if (random.nextInt(20) == 0 && !ids.isEmpty()) {
+            presetId = random.nextBoolean() ? highestId + 1 + random.nextInt(5) : ids.get(anyHandle());
+        }
+        Employee employee = new Employee(presetId, pick(FIRST_NAMES), pick(LAST_NAMES), email,
+                                         department(), salary(), "2024-01-" + (10 + random.nextInt(20)));
+        repository.addEmployee(employee);
+        ids.add(employee.getId());
+        highestId = Math.max(highestId, employee.getId());
+        if (presetId > 0) {
+            return "add h" + (ids.size() - 1) + " preset " + (employee.getId() == presetId ? "kept" : "ignored");
+        }
+        return "add h" + (ids.size() - 1);
+    }
+
+    private String update() {
+        int handle = anyHandle();
+        Employee employee = new Employee(ids.get(handle), pick(FIRST_NAMES), pick(LAST_NAMES),
+                                         "user" + random.nextInt(nextEmail + 1) + "@example.com",
+                                         department(), salary(), "2023-06-01");
+        repository.updateEmployee(employee);
+        return "update h" + handle;
+    }
+
+    /**
+     * Final full comparison, so divergence late in the run is caught too
+     */
+    private void verifyAll() {
+        transcript.add("final all " + format(repository.getAllEmployees()));
+        for (String department : DEPARTMENTS) {
+            transcript.add("final department " + formatByName(repository.getEmployeesByDepartment(department)));
+        }
+    }
+
+    /**
+     * Compare FailureStats with the exceptions this run observed
+     */
+    private boolean checkFailureStats(String name, PrintStream report) {
+        boolean ok = true;
+        for (EmployeeDataException.Type type : EmployeeDataException.Type.values()) {
+            if (FailureStats.getFailures(type) != thrown[type.ordinal()]) {
+                report.println(name + ": FailureStats counts " + FailureStats.getFailures(type) + " " + type
+                               + " failures but " + thrown[type.ordinal()] + " were thrown");
+                ok = false;
+            }
+        }
+        return ok;
+    }
+
+    /**
+     * Handle of any employee ever added, deleted ones included (to hit unknown IDs)
+     */
+    private int anyHandle() {
+        return random.nextInt(ids.size());
+    }
+
+    private String department() {
+        return pick(DEPARTMENTS);
+    }
+
+    private double salary() {
+        return SALARIES[random.nextInt(SALARIES.length)];
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private String format(Employee employee) {
+        if (employee == null) {
+            return "null";
+        }
+        return "h" + ids.indexOf(employee.getId()) + "|" + employee.getFirstName() + "|" + employee.getLastName()
+               + "|" + employee.getEmail() + "|" + employee.getDepartment() + "|" + employee.getSalary()
+               + "|" + employee.getHireDate();
+    }
+
+    private String format(List<Employee> employees) {
+        StringBuilder sb = new StringBuilder().append(employees.size());
+        for (Employee employee : employees) {
+            sb.append(' ').append(format(employee));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Format a list that must be ordered by last and first name, with ties in handle order
+     */
+    private String formatByName(List<Employee> employees) {
+        Comparator<Employee> byName = Comparator.comparing(Employee::getLastName)
+            .thenComparing(Employee::getFirstName);
+        for (int i = 1; i < employees.size(); i++) {
+            if (byName.compare(employees.get(i - 1), employees.get(i)) > 0) {
+                return "NOT ORDERED BY NAME " + format(employees);
+            }
+        }
+        List<Employee> sorted = new ArrayList<>(employees);
+        sorted.sort(byName.thenComparingInt(e -> ids.indexOf(e.getId())));
+        return format(sorted);
+    }
+
+    private static boolean compare(String expectedName, List<String> expected,
+                                   String actualName, List<String> actual, PrintStream report) {
+        for (int i = 0; i < Math.max(expected.size(), actual.size()); i++) {
+            String e = i < expected.size() ? expected.get(i) : "<missing>";
+            String a = i < actual.size() ? actual.get(i) : "<missing>";
+            if (!e.equals(a)) {
+                report.println(actualName + " differs from " + expectedName + " at line " + (i + 1) + ":");
+                report.println("  " + expectedName + ": " + e);
+                report.println("  " + actualName + ": " + a);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String shardFile(int shard) {
+        return "employee_database-shard" + shard + ".db";
+    }
+
+    private static void deleteDatabase(String file) {
+        for (String suffix : new String[] { "", "-wal", "-shm" }) {
+            new File(file + suffix).delete();
+        }
+    }
+}
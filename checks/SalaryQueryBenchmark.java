@@ -0,0 +1,158 @@
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * SalaryQueryBenchmark - times the salary queries of EmployeeDAO on a large table
+ * Seeds a fresh database (tables and indexes from DatabaseConnection.createTables)
+ * and, after a warm-up, times each query:
+ *
+ *     top 10 overall, top 10 in one department, a salary range of $100,
+ *     and the percentile rank of a salary
+ *
+ * printing p50 and p99 for each. It fails unless both top-10 queries have
+ *
+ *     p50 < MAX_P50_MS
+ *
+ * and return ten employees ordered by salary, highest first.
+ * The database lives in a temporary directory and is deleted afterwards.
+ *
+ * Usage: java SalaryQueryBenchmark [rows] [maxP50Ms]
+ * (defaults 1000000 and 1.0)
+ * Exit code 0 if the bound holds, 1 otherwise.
+ */
+public class SalaryQueryBenchmark {
+    private static final int DEPARTMENTS = 20;
+    private static final int WARMUP_QUERIES = 200;
+    private static final int TOP_QUERIES = 1000;
+    // Range and percentile queries read many index entries, so fewer are timed
+    private static final int SCAN_QUERIES = 200;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        double maxP50Millis = args.length > 1 ? Double.parseDouble(args[1]) : 1.0;
+
+        File dir = Files.createTempDirectory("salary-bench-").toFile();
+        File dbFile = new File(dir, "employees.db");
+        boolean ok;
+        try (Connection conn = DatabaseConnection.openConnection(dbFile.getPath())) {
+            DatabaseConnection.createTables(conn);
+            long start = System.nanoTime();
+            seed(conn, rows);
+            System.out.printf("seeded %d rows in %.1f s%n", rows, (System.nanoTime() - start) / 1e9);
+
+            EmployeeDAO dao = new EmployeeDAO(conn);
+            Random random = new Random(7);
+            for (int i = 0; i < WARMUP_QUERIES; i++) {
+                dao.getTopEarners(10, null);
+                dao.getTopEarners(10, department(i));
+                dao.getEmployeesBySalaryRange(salary(random), salary(random) + 100);
+                dao.getSalaryPercentileRank(salary(random));
+            }
+
+            boolean ordered = true;
+            long[] top = new long[TOP_QUERIES];
+            long[] topDepartment = new long[TOP_QUERIES];
+            for (int i = 0; i < TOP_QUERIES; i++) {
+                start = System.nanoTime();
+                List<Employee> result = dao.getTopEarners(10, null);
+                top[i] = System.nanoTime() - start;
+                ordered &= isTopTen(result);
+
+                start = System.nanoTime();
+                result = dao.getTopEarners(10, department(i));
+                topDepartment[i] = System.nanoTime() - start;
+                ordered &= isTopTen(result);
+            }
+
+            long[] range = new long[SCAN_QUERIES];
+            long[] percentile = new long[SCAN_QUERIES];
+            for (int i = 0; i < SCAN_QUERIES; i++) {
+                double min = salary(random);
+                start = System.nanoTime();
+                dao.getEmployeesBySalaryRange(min, min + 100);
+                range[i] = System.nanoTime() - start;
+
+                double salary = salary(random);
+                start = System.nanoTime();
+                dao.getSalaryPercentileRank(salary);
+                percentile[i] = System.nanoTime() - start;
+            }
+
+            double topP50 = report("top 10", top);
+            double topDepartmentP50 = report("top 10 in department", topDepartment);
+            report("salary range ($100)", range);
+            report("percentile rank", percentile);
+            System.out.printf("bound: top-10 p50 < %.3f ms%n", maxP50Millis);
+            System.out.println("top-10 results ordered: " + ordered);
+
+            ok = ordered && topP50 < maxP50Millis && topDepartmentP50 < maxP50Millis;
+            System.out.println(ok ? "PASS" : "FAIL");
+        } finally {
+            for (String suffix : new String[] { "", "-wal", "-shm" }) {
+                new File(dbFile.getPath() + suffix).delete();
+            }
+            dir.delete();
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static void seed(Connection conn, int rows) throws SQLException {
+        Random random = new Random(3);
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                 "INSERT INTO employees (first_name, last_name, email, department, salary, hire_date) "
+                 + "VALUES ('Seed', 'Row', ?, ?, ?, '2024-01-01')")) {
+            for (int i = 0; i < rows; i++) {
+                pstmt.setString(1, "seed" + i + "@example.com");
+                pstmt.setString(2, department(i));
+                pstmt.setDouble(3, 30000 + random.nextInt(9_000_000) / 100.0);
+                pstmt.addBatch();
+                if (i % 10_000 == 9_999) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    private static String department(int i) {
+        return "Dept" + (i % DEPARTMENTS);
+    }
+
+    private static double salary(Random random) {
+        return 30000 + random.nextInt(90000);
+    }
+
+    private static boolean isTopTen(List<Employee> employees) {
+        if (employees.size() != 10) {
+            return false;
+        }
+        for (int i = 1; i < employees.size(); i++) {
+            if (employees.get(i - 1).getSalary() < employees.get(i).getSalary()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Print p50 and p99 of a query's latencies
+     * @return p50 in milliseconds
+     */
+    private static double report(String query, long[] nanos) {
+        Arrays.sort(nanos);
+        double p50 = percentileMillis(nanos, 0.5);
+        System.out.printf("%-22s p50 %.3f ms, p99 %.3f ms%n", query + ":", p50, percentileMillis(nanos, 0.99));
+        return p50;
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double p) {
+        return sortedNanos[(int) Math.min(sortedNanos.length - 1, Math.ceil(p * sortedNanos.length) - 1)] / 1e6;
+    }
+}
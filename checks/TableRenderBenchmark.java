@@ -0,0 +1,128 @@
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * TableRenderBenchmark - compares TableRenderer with per-row String.format and println
+ * Renders the same employee listing both ways into memory and fails unless
+ *
+ *     the two outputs are byte-for-byte identical, and
+ *     best String.format time >= minSpeedup * best TableRenderer time
+ *
+ * Every generated value fits the column widths, so fitWidths must keep those
+ * widths and the table must look exactly like the String.format one.
+ * Also checks that salaries are formatted like %.2f for a million random amounts.
+ *
+ * Usage: java TableRenderBenchmark [rows] [rounds] [minSpeedup]
+ * (defaults 100000, 5 and 2.0; at most 999999 rows, so IDs fit their column)
+ * Exit code 0 if both outputs match and the speedup holds, 1 otherwise.
+ */
+public class TableRenderBenchmark {
+    private static final String ROW_FORMAT = "%-6d %-15s %-15s %-25s %-15s $%-9.2f %-12s";
+    private static final String HEADER_FORMAT = "%-6s %-15s %-15s %-25s %-15s %-10s %-12s";
+    private static final int TABLE_WIDTH = 6 + 15 + 15 + 25 + 15 + 10 + 12 + 6;
+    private static final int MONEY_SAMPLES = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        double minSpeedup = args.length > 2 ? Double.parseDouble(args[2]) : 2.0;
+
+        Random random = new Random(1);
+        List<Employee> rows = new ArrayList<>(rowCount);
+        for (int i = 1; i <= rowCount; i++) {
+            rows.add(new Employee(i, "First" + i, "Last" + (i % 977), "user" + i + "@company.com", "Dept" + (i % 13),
+                                  30000 + random.nextInt(90000) + random.nextInt(100) / 100.0, "2024-01-01"));
+        }
+
+        long[] formatNanos = new long[rounds];
+        long[] rendererNanos = new long[rounds];
+        byte[] formatted = null;
+        byte[] rendered = null;
+        for (int round = 0; round < rounds; round++) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(rowCount * 128);
+            long start = System.nanoTime();
+            printWithFormat(rows, new PrintStream(bytes, false, StandardCharsets.UTF_8));
+            formatNanos[round] = System.nanoTime() - start;
+            formatted = bytes.toByteArray();
+
+            bytes = new ByteArrayOutputStream(rowCount * 128);
+            start = System.nanoTime();
+            printWithRenderer(rows, bytes);
+            rendererNanos[round] = System.nanoTime() - start;
+            rendered = bytes.toByteArray();
+
+            System.out.printf("round %d: String.format %.1f ms, TableRenderer %.1f ms%n",
+                              round, formatNanos[round] / 1e6, rendererNanos[round] / 1e6);
+        }
+
+        Arrays.sort(formatNanos);
+        Arrays.sort(rendererNanos);
+        double speedup = (double) formatNanos[0] / rendererNanos[0];
+        boolean sameOutput = Arrays.equals(formatted, rendered);
+        boolean moneyOk = checkMoneyFormat(random);
+
+        System.out.printf("best: String.format %.1f ms (%.0f rows/s), TableRenderer %.1f ms (%.0f rows/s)%n",
+                          formatNanos[0] / 1e6, rowCount / (formatNanos[0] / 1e9),
+                          rendererNanos[0] / 1e6, rowCount / (rendererNanos[0] / 1e9));
+        System.out.printf("speedup: %.2fx (need %.2fx)%n", speedup, minSpeedup);
+        System.out.println("identical output: " + sameOutput + " (" + rendered.length + " bytes)");
+        System.out.println("money format matches %.2f: " + moneyOk);
+
+        boolean ok = sameOutput && moneyOk && speedup >= minSpeedup;
+        System.out.println(ok ? "PASS" : "FAIL");
+        System.exit(ok ? 0 : 1);
+    }
+
+    /**
+     * The listing as it was printed before TableRenderer
+     */
+    private static void printWithFormat(List<Employee> rows, PrintStream out) {
+        out.println(String.format(Locale.ROOT, HEADER_FORMAT,
+                                  "ID", "First Name", "Last Name", "Email", "Department", "Salary", "Hire Date"));
+        out.println("-".repeat(TABLE_WIDTH));
+        for (Employee emp : rows) {
+            out.println(String.format(Locale.ROOT, ROW_FORMAT, emp.getId(), emp.getFirstName(), emp.getLastName(),
+                                      emp.getEmail(), emp.getDepartment(), emp.getSalary(), emp.getHireDate()));
+        }
+        out.flush();
+    }
+
+    private static void printWithRenderer(List<Employee> rows, OutputStream bytes) throws Exception {
+        Writer out = new BufferedWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8), 1 << 16);
+        new TableRenderer()
+            .intColumn("ID", 6, Employee::getId)
+            .textColumn("First Name", 15, Employee::getFirstName)
+            .textColumn("Last Name", 15, Employee::getLastName)
+            .textColumn("Email", 25, Employee::getEmail)
+            .textColumn("Department", 15, Employee::getDepartment)
+            .moneyColumn("Salary", 10, Employee::getSalary)
+            .textColumn("Hire Date", 12, Employee::getHireDate)
+            .fitWidths(rows, 1000)
+            .render(rows, out);
+    }
+
+    private static boolean checkMoneyFormat(Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < MONEY_SAMPLES; i++) {
+            double amount = (random.nextInt(20_000_000) - 1_000_000) / 100.0;
+            sb.setLength(0);
+            TableRenderer.appendMoney(sb, amount);
+            String expected = String.format(Locale.ROOT, "%.2f", amount);
+            if (!sb.toString().equals(expected)) {
+                System.out.println("money format mismatch: " + sb + " vs " + expected);
+                return false;
+            }
+        }
+        return true;
+    }
+}